@@ -0,0 +1,120 @@
+package checkers.bench;
+
+import checkers.Checkers;
+import checkers.Move;
+import checkers.MoveCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmarks {
+
+    /**
+     * Benchmarks of the board operations the game and search are built
+     * from, run on every board size and game phase of {@link BoardState}.
+     *
+     * Run with java -jar benchmarks/target/benchmarks.jar, adding -prof gc
+     * to also report the allocation rate and bytes allocated per operation.
+     */
+    public BoardBenchmarks() {
+    }
+
+    /**
+     * @param state The board state.
+     * @return  Valid moves, as the game lists them.
+     */
+    @Benchmark
+    public MoveCollection getValidMoves(BoardState state) {
+        return state.position.getValidMoves();
+    }
+
+    /**
+     * @param state The board state.
+     * @return  Number of packed moves, as search generates them.
+     */
+    @Benchmark
+    public int generateMoves(BoardState state) {
+        state.position.generateMoves(state.moves);
+        return state.moves.size();
+    }
+
+    /**
+     * @param state The board state.
+     * @param blackhole Receives the moves of each chip.
+     */
+    @Benchmark
+    public void getValidMovesForChip(BoardState state, Blackhole blackhole) {
+        Checkers c = state.position;
+        for(int i=0;i<c.getCellCount();i++) {
+            if(c.getPlayerAt(i) == c.getCurrentPlayer()) {
+                blackhole.consume(c.getValidMovesForChip(i));
+            }
+        }
+    }
+
+    /**
+     * Makes every valid move on its own copy of the board, as moveChip
+     * cannot be repeated on the same board state, so each operation includes
+     * one copy per move, see {@link #copy(BoardState)}.
+     *
+     * @param state The board state.
+     * @param blackhole Receives the boards moved on.
+     */
+    @Benchmark
+    public void moveChip(BoardState state, Blackhole blackhole) {
+        for(Move move: state.validMoves) {
+            Checkers copy = new Checkers(state.position);
+            copy.moveChip(move);
+            blackhole.consume(copy);
+        }
+    }
+
+    /**
+     * Makes and takes back every valid packed move on the board, the path
+     * search uses instead of moveChip.
+     *
+     * @param state The board state.
+     * @return  Number of moves made.
+     */
+    @Benchmark
+    public int makeUnmakeMove(BoardState state) {
+        Checkers c = state.position;
+        c.generateMoves(state.moves);
+        for(int i=0;i<state.moves.size();i++) {
+            c.makeMove(state.moves.get(i));
+            c.unmakeMove(state.moves.get(i));
+        }
+        return state.moves.size();
+    }
+
+    /**
+     * @param state The board state.
+     * @return  Difference of the players' scores.
+     */
+    @Benchmark
+    public int getPlayerScore(BoardState state) {
+        return state.position.getPlayerScore(1) -
+                state.position.getPlayerScore(2);
+    }
+
+    /**
+     * @param state The board state.
+     * @return  Copy of the board.
+     */
+    @Benchmark
+    public Checkers copy(BoardState state) {
+        return new Checkers(state.position);
+    }
+}
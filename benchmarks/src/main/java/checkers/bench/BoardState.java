@@ -0,0 +1,111 @@
+package checkers.bench;
+
+import checkers.Checkers;
+import checkers.Engine;
+import checkers.IntMoveList;
+import checkers.MoveCollection;
+import checkers.TranspositionTable;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+@State(Scope.Thread)
+public class BoardState {
+
+    /**
+     * Game phases every benchmark is run on.
+     */
+    public enum Phase {
+        OPENING(1.0), MIDDLEGAME(0.65), ENDGAME(0.2);
+
+        /**
+         * Fraction of the starting chips left on the board.
+         */
+        private final double remaining;
+
+        Phase(double remaining) {
+            this.remaining = remaining;
+        }
+    }
+
+    /**
+     * The dimensions of the board.
+     */
+    @Param({"8", "10", "16"})
+    public int size;
+
+    /**
+     * The game phase.
+     */
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public Phase phase;
+
+    /**
+     * Board state for the size and phase, left as it was found by every
+     * benchmark.
+     */
+    public Checkers position;
+
+    /**
+     * Valid moves of the board state.
+     */
+    public MoveCollection validMoves;
+
+    /**
+     * Move list reused by benchmarks generating packed moves.
+     */
+    public final IntMoveList moves = new IntMoveList();
+
+    /**
+     * Board state shared by the benchmarks of a thread, built once per
+     * trial by making random moves from the starting position, with a seed
+     * fixed by size and phase so runs are comparable, until the phase's
+     * fraction of chips is left.
+     *
+     * Searches use a single threaded engine with a small transposition
+     * table so that results do not depend on the machine's core count.
+     */
+    public BoardState() {
+    }
+
+    /**
+     * Builds the board state for the size and phase.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(size * 31L + phase.ordinal());
+        int target = (int) (chips(new Checkers(size)) * phase.remaining);
+        while(true) {
+            Checkers c = new Checkers(size);
+            MoveCollection valid = c.getValidMoves();
+            while(!valid.isEmpty() && chips(c) > target) {
+                c.moveChip(valid.get(random.nextInt(valid.size())));
+                valid = c.getValidMoves();
+            }
+            if(valid.size() > 1) {
+                c.setEngine(new Engine(1, new TranspositionTable(1 << 16)));
+                position = c;
+                validMoves = valid;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param c The board state.
+     * @return  Number of chips on the board.
+     */
+    private static int chips(Checkers c) {
+        int chips = 0;
+        for(int i=0;i<c.getCellCount();i++) {
+            if(!c.isCellEmpty(i)) {
+                chips++;
+            }
+        }
+        return chips;
+    }
+}
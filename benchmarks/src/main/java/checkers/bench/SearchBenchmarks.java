@@ -0,0 +1,83 @@
+package checkers.bench;
+
+import checkers.Engine;
+import checkers.Move;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmarks {
+
+    /**
+     * The max depth for minimax.
+     */
+    @Param({"2", "4", "6"})
+    public int depth;
+
+    /**
+     * Benchmarks of a whole search for the next best move at several
+     * depths, run on every board size and game phase of {@link BoardState}
+     * from an empty transposition table, reporting nodes per second as
+     * well as searches per second.
+     *
+     * Run with java -jar benchmarks/target/benchmarks.jar Search, adding
+     * -prof gc to also report the allocation rate.
+     */
+    public SearchBenchmarks() {
+    }
+
+    /**
+     * Nodes visited by the searches of an iteration, reported by JMH per
+     * second.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+
+        /**
+         * Nodes visited.
+         */
+        public long nodes;
+
+        /**
+         * Clears the count for the next iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    /**
+     * @param state The board state.
+     * @param counter   Receives the nodes visited.
+     * @return  The best move.
+     */
+    @Benchmark
+    public Move getNextBestMove(BoardState state, Nodes counter) {
+        Engine engine = state.position.getEngine();
+        engine.getTranspositionTable().clear();
+        long nodes = engine.getNodes();
+        Move move = state.position.getNextBestMove(depth);
+        counter.nodes += engine.getNodes() - nodes;
+        return move;
+    }
+}
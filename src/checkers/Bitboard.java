@@ -0,0 +1,105 @@
+package checkers;
+
+public final class Bitboard {
+
+    /**
+     * Static helpers only.
+     */
+    private Bitboard() {
+    }
+
+    /**
+     * Creates an empty bitboard able to hold the specified number of cells.
+     *
+     * Boards of up to 64 cells fit in a single word, larger boards such as
+     * 16x16 are spread across as many words as required.
+     *
+     * @param cells Number of cells on the board.
+     * @return  Empty bitboard.
+     */
+    public static long[] create(int cells) {
+        return new long[(cells + 63) >>> 6];
+    }
+
+    /**
+     * Checks whether a cell is set on a bitboard.
+     *
+     * @param bb    The bitboard.
+     * @param i The cell index.
+     * @return  True if the cell is set.
+     */
+    public static boolean test(long[] bb, int i) {
+        return (bb[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Sets a cell on a bitboard.
+     *
+     * @param bb    The bitboard.
+     * @param i The cell index.
+     */
+    public static void set(long[] bb, int i) {
+        bb[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Clears a cell on a bitboard.
+     *
+     * @param bb    The bitboard.
+     * @param i The cell index.
+     */
+    public static void clear(long[] bb, int i) {
+        bb[i >>> 6] &= ~(1L << i);
+    }
+
+    /**
+     * Counts the cells set on a bitboard.
+     *
+     * @param bb    The bitboard.
+     * @return  Number of cells set.
+     */
+    public static int count(long[] bb) {
+        int count = 0;
+        for(long word: bb) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the cells set on both of the specified bitboards.
+     *
+     * @param a First bitboard.
+     * @param b Second bitboard.
+     * @return  Number of cells set on both.
+     */
+    public static int countBoth(long[] a, long[] b) {
+        int count = 0;
+        for(int w=0;w<a.length;w++) {
+            count += Long.bitCount(a[w] & b[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of the first cell set at or after the specified cell.
+     *
+     * @param bb    The bitboard.
+     * @param from  Cell index to start searching from.
+     * @return  Cell index, or -1 if no further cells are set.
+     */
+    public static int next(long[] bb, int from) {
+        int w = from >>> 6;
+        if(w >= bb.length) {
+            return -1;
+        }
+        long word = bb[w] & (-1L << from);
+        while(word == 0) {
+            if(++w == bb.length) {
+                return -1;
+            }
+            word = bb[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -0,0 +1,149 @@
+package checkers;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class BoardGeometry {
+
+    /**
+     * Number of diagonal directions from a cell.
+     */
+    public static final int DIRECTIONS = 4;
+
+    /**
+     * Shared tables indexed by board size.
+     */
+    private static final ConcurrentHashMap<Integer, BoardGeometry> TABLES =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The dimensions of the board.
+     */
+    private final int size;
+
+    /**
+     * Diagonally adjacent cell indexed by cell * 4 + direction, or -1 if the
+     * step would leave the board.
+     */
+    private final int[] steps;
+
+    /**
+     * Landing cell of a jump over the adjacent cell, indexed by
+     * cell * 4 + direction, or -1 if the jump would leave the board.
+     */
+    private final int[] jumps;
+
+    /**
+     * Row of each cell.
+     */
+    private final int[] rows;
+
+    /**
+     * Lookup tables of the diagonal neighbours of every cell, built once per
+     * board size and shared by all games of that size.
+     *
+     * Directions 0 and 1 lead towards higher cell indexes, the way player 2
+     * moves, and directions 2 and 3 towards lower ones, the way player 1
+     * moves. Within each pair the lower cell index comes first, so walking
+     * the directions in order visits moves in the same order as scanning
+     * the board.
+     *
+     * A jump is only ever possible in a direction that has a step, so a
+     * missing step rules out the jump too.
+     *
+     * @param size  The dimensions of the board.
+     */
+    private BoardGeometry(int size) {
+        this.size = size;
+        int cells = size * size / 2;
+        int half = size / 2;
+        steps = new int[cells * DIRECTIONS];
+        jumps = new int[cells * DIRECTIONS];
+        rows = new int[cells];
+        Arrays.fill(steps, -1);
+        Arrays.fill(jumps, -1);
+
+        for(int i=0;i<cells;i++) {
+            int row = i / half;
+            rows[i] = row;
+            for(int d=0;d<DIRECTIONS;d++) {
+                int dir = d < 2 ? 1 : -1;
+                int right = d % 2;
+                int step = i + half * dir - (row % 2) + right;
+                if(step >= 0 && step < cells && step / half == row + dir) {
+                    steps[i * DIRECTIONS + d] = step;
+                }
+                int jump = i + half * dir * 2 + (right == 0 ? -1 : 1);
+                if(jump >= 0 && jump < cells &&
+                        jump / half == row + dir * 2) {
+                    jumps[i * DIRECTIONS + d] = jump;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the shared tables for a board size.
+     *
+     * @param size  The dimensions of the board.
+     * @return  Tables for the board size.
+     */
+    public static BoardGeometry forSize(int size) {
+        return TABLES.computeIfAbsent(size, BoardGeometry::new);
+    }
+
+    /**
+     * @return  The dimensions of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the cell diagonally adjacent to a cell.
+     *
+     * @param i The cell index.
+     * @param direction The direction, 0 to 3.
+     * @return  Adjacent cell index, or -1 if off the board.
+     */
+    public int step(int i, int direction) {
+        return steps[i * DIRECTIONS + direction];
+    }
+
+    /**
+     * Get the landing cell of a jump from a cell over its adjacent cell.
+     *
+     * @param i The cell index.
+     * @param direction The direction, 0 to 3.
+     * @return  Landing cell index, or -1 if off the board.
+     */
+    public int jump(int i, int direction) {
+        return jumps[i * DIRECTIONS + direction];
+    }
+
+    /**
+     * Get the row of a cell, 0 being player 2's home row.
+     *
+     * @param i The cell index.
+     * @return  The row.
+     */
+    public int row(int i) {
+        return rows[i];
+    }
+
+    /**
+     * @return  Step table indexed by cell * 4 + direction, for inner loops.
+     * Must not be modified.
+     */
+    int[] getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return  Jump table indexed by cell * 4 + direction, for inner loops.
+     * Must not be modified.
+     */
+    int[] getJumps() {
+        return jumps;
+    }
+}
@@ -0,0 +1,69 @@
+package checkers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CancellationToken {
+
+    /**
+     * Cancelled flag, read by searches at every node.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Actions to run once cancelled, null once they have run.
+     */
+    private List<Runnable> actions = new ArrayList<>();
+
+    /**
+     * Lets the owner of a search cancel it from another thread, such as a
+     * game abandoning a search when it is reset. A search given a cancelled
+     * token stops within a node and returns promptly. A token cannot be
+     * reset, a new one is needed for each search that may be cancelled
+     * separately.
+     */
+    public CancellationToken() {
+    }
+
+    /**
+     * Cancels the token and runs the actions registered with
+     * {@link #onCancel(Runnable)}. Has no effect if already cancelled.
+     */
+    public void cancel() {
+        List<Runnable> actions;
+        synchronized(this) {
+            if(cancelled) {
+                return;
+            }
+            cancelled = true;
+            actions = this.actions;
+            this.actions = null;
+        }
+        for(Runnable action: actions) {
+            action.run();
+        }
+    }
+
+    /**
+     * @return  True if the token has been cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registers an action to run when the token is cancelled, on the
+     * cancelling thread, or immediately if it already has been.
+     *
+     * @param action    The action to run.
+     */
+    public void onCancel(Runnable action) {
+        synchronized(this) {
+            if(!cancelled) {
+                actions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+}
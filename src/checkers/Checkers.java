@@ -1,35 +1,104 @@
 package checkers;
 
-import javafx.util.Pair;
-
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
 
 public class Checkers {
 
     /**
-     * Data structure for board state.
+     * Occupancy bitboards indexed by player identifier. Index 0 is unused.
      */
-    private final Chip[] board;
+    private final long[][] pieces;
+
+    /**
+     * Bitboard of cells occupied by kings of either player.
+     */
+    private final long[] kings;
 
     /**
      * The dimensions of this game board.
      */
     private final int size;
 
+    /**
+     * Number of habitable cells on this game board.
+     */
+    private final int cells;
+
     /**
      * The current player identifier.
      */
     private int currentPlayer;
 
     /**
-     * Collection of moves for when multi-leg move is in progress.
+     * Cell of the chip making a multi-leg move in progress, or -1.
+     */
+    private int multiCell = -1;
+
+    /**
+     * Player scores indexed by player identifier, maintained incrementally.
+     * Index 0 is unused.
+     */
+    private final int[] scores;
+
+    /**
+     * Neighbour and jump tables for this board size.
+     */
+    private final BoardGeometry geometry;
+
+    /**
+     * Zobrist keys for this board size.
+     */
+    private final Zobrist zobrist;
+
+    /**
+     * Zobrist hash of the board state, maintained incrementally.
+     */
+    private long hash;
+
+    /**
+     * Engine used to search for moves, shared between copies.
+     */
+    private Engine engine;
+
+    /**
+     * Undo stack of packed state for moves made with makeMove. Holds the
+     * current player, the king flags and the multi-leg move cell plus one
+     * shifted left by 4.
+     */
+    private int[] undoStates = new int[64];
+
+    /**
+     * Undo stack of board state hashes for moves made with makeMove.
+     */
+    private long[] undoHashes = new long[64];
+
+    /**
+     * Undo stack of both player scores for moves made with makeMove, two
+     * entries per move.
+     */
+    private int[] undoScores = new int[128];
+
+    /**
+     * Number of moves on the undo stack.
      */
-    private MoveCollection multiMoves;
+    private int undoCount;
+
+    /**
+     * Undo state flag for a moved chip that was already a king.
+     */
+    private static final int UNDO_KING = 4;
+
+    /**
+     * Undo state flag for a captured chip that was a king.
+     */
+    private static final int UNDO_CAPTURED_KING = 8;
+
+    /**
+     * Reusable list for move generation within this instance.
+     */
+    private IntMoveList scratch;
 
     /**
      * Internal representation of Checkers game.
@@ -42,19 +111,107 @@ public class Checkers {
      * Internal representation of Checkers game.
      *
      * @param size  The dimensions of the board game size x size.
+     * @throws IllegalArgumentException If the size is odd, below 4 or
+     * above {@link IntMove#MAX_BOARD_SIZE}.
      */
     public Checkers(int size) {
+        checkSize(size);
         this.size = size;
+        this.cells = size * size / 2;
         this.currentPlayer = 1;
 
-        board = new Chip[size * size / 2];
+        pieces = new long[][] {
+                Bitboard.create(cells),
+                Bitboard.create(cells),
+                Bitboard.create(cells)
+        };
+        kings = Bitboard.create(cells);
         int chipCount = (size * (size / 2 - 1)) / 2;
 
         for(int i=0; i<chipCount; i++) {
-            board[i] = new Chip(2);
+            Bitboard.set(pieces[2], i);
+        }
+        for(int i=cells - chipCount; i<cells; i++){
+            Bitboard.set(pieces[1], i);
+        }
+
+        geometry = BoardGeometry.forSize(size);
+        zobrist = Zobrist.forCells(cells);
+        scores = new int[3];
+        for(int i=0; i<cells; i++) {
+            int player = ownerOf(i);
+            if(player != 0) {
+                hash ^= zobrist.chip(player, false, i);
+                scores[player] += getChipScore(player, false, i);
+            }
+        }
+    }
+
+    /**
+     * Internal representation of Checkers game set up in a given board
+     * state, such as one read by {@link Notation#parsePosition(String)}.
+     *
+     * @param size  The dimensions of the board game size x size.
+     * @param board Chip on each board index, null for an empty cell.
+     * @param currentPlayer Identifier of the player to move.
+     * @throws IllegalArgumentException If the size is invalid, the board
+     * does not match it or the player is invalid.
+     */
+    public Checkers(int size, Chip[] board, int currentPlayer) {
+        checkSize(size);
+        this.size = size;
+        this.cells = size * size / 2;
+        if(board.length != cells) {
+            throw new IllegalArgumentException("Expected " + cells +
+                    " cells, got " + board.length);
+        }
+        if(currentPlayer != 1 && currentPlayer != 2) {
+            throw new IllegalArgumentException("Invalid player " +
+                    currentPlayer);
         }
-        for(int i=board.length - chipCount; i<board.length; i++){
-            board[i] = new Chip(1);
+        this.currentPlayer = currentPlayer;
+
+        pieces = new long[][] {
+                Bitboard.create(cells),
+                Bitboard.create(cells),
+                Bitboard.create(cells)
+        };
+        kings = Bitboard.create(cells);
+        for(int i=0; i<cells; i++) {
+            if(board[i] != null) {
+                Bitboard.set(pieces[board[i].getPlayer()], i);
+                if(board[i].isKing()) {
+                    Bitboard.set(kings, i);
+                }
+            }
+        }
+
+        geometry = BoardGeometry.forSize(size);
+        zobrist = Zobrist.forCells(cells);
+        scores = new int[3];
+        for(int i=0; i<cells; i++) {
+            int player = ownerOf(i);
+            if(player != 0) {
+                boolean king = Bitboard.test(kings, i);
+                hash ^= zobrist.chip(player, king, i);
+                scores[player] += getChipScore(player, king, i);
+            }
+        }
+        if(currentPlayer == 2) {
+            hash ^= zobrist.player();
+        }
+    }
+
+    /**
+     * Checks that a board size can be played and its moves packed.
+     *
+     * @param size  The dimensions of the board.
+     * @throws IllegalArgumentException If the size is odd, below 4 or
+     * above {@link IntMove#MAX_BOARD_SIZE}.
+     */
+    private static void checkSize(int size) {
+        if(size < 4 || size > IntMove.MAX_BOARD_SIZE || size % 2 != 0) {
+            throw new IllegalArgumentException("Invalid board size " + size);
         }
     }
 
@@ -65,15 +222,20 @@ public class Checkers {
      */
     public Checkers(Checkers checkers) {
         size = checkers.size;
+        cells = checkers.cells;
         currentPlayer = checkers.currentPlayer;
-        board = new Chip[checkers.getBoard().length];
-        multiMoves = checkers.multiMoves;
-        for(int i=0;i<board.length;i++) {
-            Chip c = checkers.getChip(i);
-            if(c != null) {
-                board[i] = new Chip(c);
-            }
-        }
+        multiCell = checkers.multiCell;
+        pieces = new long[][] {
+                checkers.pieces[0].clone(),
+                checkers.pieces[1].clone(),
+                checkers.pieces[2].clone()
+        };
+        kings = checkers.kings.clone();
+        scores = checkers.scores.clone();
+        geometry = checkers.geometry;
+        zobrist = checkers.zobrist;
+        hash = checkers.hash;
+        engine = checkers.engine;
     }
 
     /**
@@ -84,20 +246,77 @@ public class Checkers {
     }
 
     /**
+     * @return  Number of habitable cells on this game board.
+     */
+    public int getCellCount() {
+        return cells;
+    }
+
+    /**
+     * Builds a snapshot of the board state as chip objects.
+     *
+     * The board itself is held as bitboards, so changes made to the returned
+     * chips are not reflected in the game.
+     *
      * @return  The board state.
      */
     public Chip[] getBoard() {
+        Chip[] board = new Chip[cells];
+        for(int i=0;i<cells;i++) {
+            board[i] = getChip(i);
+        }
         return board;
     }
 
     /**
      * Get a chip at specified board index.
      *
+     * The returned chip is a snapshot, see {@link #getBoard()}.
+     *
      * @param i The board index.
-     * @return  Chip at board index.
+     * @return  Chip at board index, or null if the cell is empty.
      */
     public Chip getChip(int i) {
-        return board[i];
+        int player = getPlayerAt(i);
+        if(player == 0) {
+            return null;
+        }
+        Chip c = new Chip(player);
+        c.setKing(Bitboard.test(kings, i));
+        return c;
+    }
+
+    /**
+     * Get the owner of the chip at specified board index.
+     *
+     * @param i The board index.
+     * @return  Player identifier, or 0 if the cell is empty.
+     */
+    public int getPlayerAt(int i) {
+        return ownerOf(i);
+    }
+
+    /**
+     * Owner of the chip at a board index, safe to call from constructors.
+     *
+     * @param i The board index.
+     * @return  Player identifier, or 0 if the cell is empty.
+     */
+    private int ownerOf(int i) {
+        if(Bitboard.test(pieces[1], i)) {
+            return 1;
+        }
+        return Bitboard.test(pieces[2], i) ? 2 : 0;
+    }
+
+    /**
+     * Checks whether the chip at specified board index is a king.
+     *
+     * @param i The board index.
+     * @return  True if there is a king on the cell.
+     */
+    public boolean isKing(int i) {
+        return Bitboard.test(kings, i);
     }
 
     /**
@@ -113,9 +332,65 @@ public class Checkers {
      * @param currentPlayer Player identifier.
      */
     public void setCurrentPlayer(int currentPlayer) {
+        if(currentPlayer != this.currentPlayer) {
+            hash ^= zobrist.player();
+        }
         this.currentPlayer = currentPlayer;
     }
 
+    /**
+     * Get the Zobrist hash of the board state. Equal board states, including
+     * the current player and any multi-leg move in progress, have equal
+     * hashes.
+     *
+     * @return  Board state hash.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return  True if a multi-leg move is in progress and only moves
+     * continuing it are valid.
+     */
+    boolean isContinuing() {
+        return multiCell >= 0;
+    }
+
+    /**
+     * @param player    The player identifier.
+     * @return  Occupancy bitboard of the player's chips. Must not be
+     * modified.
+     */
+    long[] getPieces(int player) {
+        return pieces[player];
+    }
+
+    /**
+     * @return  Bitboard of cells occupied by kings. Must not be modified.
+     */
+    long[] getKings() {
+        return kings;
+    }
+
+    /**
+     * @return  Engine used to search for moves, the shared default engine if
+     * none has been set.
+     */
+    public Engine getEngine() {
+        return engine != null ? engine : Engine.getDefault();
+    }
+
+    /**
+     * Sets the engine used to search for moves. Copies made after this call
+     * share the engine.
+     *
+     * @param engine    The engine.
+     */
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
     /**
      * Checks whether a cell has a chip on it.
      *
@@ -123,7 +398,7 @@ public class Checkers {
      * @return  True if cell has no chip on it.
      */
     public boolean isCellEmpty(int i) {
-        return board[i] == null;
+        return !Bitboard.test(pieces[1], i) && !Bitboard.test(pieces[2], i);
     }
 
     /**
@@ -133,48 +408,176 @@ public class Checkers {
      * If the move object specifies a capturing move then the captured chip
      * will be removed from the board.
      *
+     * If the move object is a complete multi-jump, every leg is made.
+     *
      * @param move  The move object that represents the move.
      * a chip on it.
      */
     public void moveChip(Move move) {
-        Chip chip = getChip(move.getStart());
-        board[move.getStart()] = null;
-        board[move.getDest()] = chip;
+        for(Move leg=move;leg!=null;leg=leg.getNext()) {
+            moveChip(IntMove.fromMove(leg));
+        }
+    }
+
+    /**
+     * Moves a chip from one position to another according to the packed move
+     * specified, see {@link #moveChip(Move)}.
+     *
+     * @param move  Packed move, see {@link IntMove}.
+     */
+    public void moveChip(int move) {
+        int start = IntMove.getStart(move);
+        int dest = IntMove.getDest(move);
+        int player = getPlayerAt(start);
+        long[] own = pieces[player];
+        boolean king = Bitboard.test(kings, start);
+        Bitboard.clear(own, start);
+        Bitboard.set(own, dest);
+        if(king) {
+            Bitboard.clear(kings, start);
+            Bitboard.set(kings, dest);
+        }
+        hash ^= zobrist.chip(player, king, start);
+        scores[player] -= getChipScore(player, king, start);
+        if(multiCell >= 0) {
+            hash ^= zobrist.continuation(start);
+        }
 
         boolean kingConversion = false;
         if(getCurrentPlayer() == 1) {
-            if(!chip.isKing() && move.getDest() >= 0 && move.getDest() < size/2) {
-                chip.setKing(true);
+            if(!king && dest >= 0 && dest < size/2) {
+                Bitboard.set(kings, dest);
                 kingConversion = true;
             }
         } else {
-            if(!chip.isKing() && move.getDest() >= board.length - size/2 &&
-                    move.getDest() < board.length) {
-                chip.setKing(true);
+            if(!king && dest >= cells - size/2 && dest < cells) {
+                Bitboard.set(kings, dest);
                 kingConversion = true;
             }
         }
 
-        if(move.isCapture()) {
-            Chip capturedChip = getChip(move.getCaptured());
-            if(capturedChip.isKing()) {
-                chip.setKing(true);
+        if(IntMove.isCapture(move)) {
+            int captured = IntMove.getCaptured(move);
+            boolean capturedKing = Bitboard.test(kings, captured);
+            if(capturedKing) {
+                Bitboard.set(kings, dest);
+                Bitboard.clear(kings, captured);
                 kingConversion = true;
             }
-            board[move.getCaptured()] = null;
-
-            MoveCollection multiMoves = getValidMovesForChip(move.getDest());
-            if(multiMoves.isCapturing() && !kingConversion) {
-                this.multiMoves = multiMoves;
+            Bitboard.clear(pieces[player%2+1], captured);
+            hash ^= zobrist.chip(player%2+1, capturedKing, captured);
+            scores[player%2+1] -= getChipScore(player%2+1, capturedKing,
+                    captured);
+            hash ^= zobrist.chip(player, Bitboard.test(kings, dest), dest);
+            scores[player] += getChipScore(player, Bitboard.test(kings, dest),
+                    dest);
+
+            if(!kingConversion && canCapture(dest)) {
+                multiCell = dest;
+                hash ^= zobrist.continuation(dest);
             } else {
-                this.multiMoves = null;
+                multiCell = -1;
                 setCurrentPlayer(getCurrentPlayer()%2+1);
             }
         } else {
+            hash ^= zobrist.chip(player, Bitboard.test(kings, dest), dest);
+            scores[player] += getChipScore(player, Bitboard.test(kings, dest),
+                    dest);
+            multiCell = -1;
             setCurrentPlayer(getCurrentPlayer()%2+1);
         }
     }
 
+    /**
+     * Makes a move in place so that it can later be taken back with
+     * {@link #unmakeMove(Move)}.
+     *
+     * Behaves exactly as {@link #moveChip(Move)}, but also records the
+     * captured chip, king promotion, current player and multi-leg move state
+     * so that a search can walk the game tree on a single instance instead
+     * of copying the board for every node.
+     *
+     * @param move  The move object that represents the move.
+     */
+    public void makeMove(Move move) {
+        for(Move leg=move;leg!=null;leg=leg.getNext()) {
+            makeMove(IntMove.fromMove(leg));
+        }
+    }
+
+    /**
+     * Makes a packed move in place, see {@link #makeMove(Move)}.
+     *
+     * @param move  Packed move, see {@link IntMove}.
+     */
+    public void makeMove(int move) {
+        if(undoCount == undoStates.length) {
+            undoStates = Arrays.copyOf(undoStates, undoCount * 2);
+            undoHashes = Arrays.copyOf(undoHashes, undoCount * 2);
+            undoScores = Arrays.copyOf(undoScores, undoCount * 4);
+        }
+        int state = currentPlayer | ((multiCell + 1) << 4);
+        if(Bitboard.test(kings, IntMove.getStart(move))) {
+            state |= UNDO_KING;
+        }
+        if(IntMove.isCapture(move) &&
+                Bitboard.test(kings, IntMove.getCaptured(move))) {
+            state |= UNDO_CAPTURED_KING;
+        }
+        undoStates[undoCount] = state;
+        undoHashes[undoCount] = hash;
+        undoScores[undoCount * 2] = scores[1];
+        undoScores[undoCount * 2 + 1] = scores[2];
+        undoCount++;
+        moveChip(move);
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(Move)}.
+     *
+     * @param move  The move object passed to the matching makeMove call.
+     */
+    public void unmakeMove(Move move) {
+        if(move.getNext() != null) {
+            unmakeMove(move.getNext());
+        }
+        unmakeMove(IntMove.fromMove(move));
+    }
+
+    /**
+     * Takes back the last move made with {@link #makeMove(int)}.
+     *
+     * @param move  The packed move passed to the matching makeMove call.
+     */
+    public void unmakeMove(int move) {
+        undoCount--;
+        int state = undoStates[undoCount];
+        hash = undoHashes[undoCount];
+        scores[1] = undoScores[undoCount * 2];
+        scores[2] = undoScores[undoCount * 2 + 1];
+        currentPlayer = state & 3;
+        multiCell = (state >>> 4) - 1;
+
+        int start = IntMove.getStart(move);
+        int dest = IntMove.getDest(move);
+        int player = getPlayerAt(dest);
+        long[] own = pieces[player];
+        Bitboard.clear(own, dest);
+        Bitboard.clear(kings, dest);
+        Bitboard.set(own, start);
+        if((state & UNDO_KING) != 0) {
+            Bitboard.set(kings, start);
+        }
+
+        if(IntMove.isCapture(move)) {
+            int captured = IntMove.getCaptured(move);
+            Bitboard.set(pieces[player%2+1], captured);
+            if((state & UNDO_CAPTURED_KING) != 0) {
+                Bitboard.set(kings, captured);
+            }
+        }
+    }
+
     /**
      * Scores the current player based on the current state of the board.
      *
@@ -200,24 +603,31 @@ public class Checkers {
      * Once a chip is removed from the board, it will no longer contribute to
      * the score, resulting in a worse overall score for the player.
      *
+     * Scores are kept up to date as chips move, are captured and are
+     * promoted, so this does not scan the board.
+     *
      * @param player    The player identifier to get the score of.
      * @return  A number representing the total score of the player.
      */
     public int getPlayerScore(int player) {
-        int score = 0;
-        for(int i=0;i<board.length;i++) {
-            Chip c = getChip(i);
-            if(c != null && c.getPlayer() == player) {
-                if(c.isKing()) {
-                    score += size;
-                } else {
-                    int leap = size/2;
-                    int row = Math.abs(i/leap);
-                    score += player == 1 ? (size-row) : (1+row);
-                }
-            }
+        return scores[player];
+    }
+
+    /**
+     * Get the amount a chip contributes to its owner's score, see
+     * {@link #getPlayerScore(int)}.
+     *
+     * @param player    The owner of the chip.
+     * @param king  True if the chip is a king.
+     * @param i The cell index of the chip.
+     * @return  The chip's contribution to the score.
+     */
+    private int getChipScore(int player, boolean king, int i) {
+        if(king) {
+            return size;
         }
-        return score;
+        int row = geometry.row(i);
+        return player == 1 ? (size-row) : (1+row);
     }
 
     /**
@@ -241,43 +651,81 @@ public class Checkers {
      * @return  List-like collection of possible moves.
      */
     public MoveCollection getValidMovesForChip(int i) {
-        MoveCollection moves = new MoveCollection();
-        Chip c = getChip(i);
-        if(c == null) {
-            return moves;
-        }
-
-        int dir = c.getPlayer() == 2 ? 1 : -1;
-        for(int d=0;d<=(c.isKing()?1:0);d++,dir*=-1) {
-            int leap = (size/2)*dir;
-            int row = Math.abs(i/leap);
-            int cell = i+leap-(row%2);
-
-            for(int d1=0,d2=-1;d1<=1;d1++,d2*=-1) {
-                cell+=d1;
-                if(cell >= 0 && cell < board.length && isCellEmpty(cell) &&
-                        Math.abs(cell/leap) == row+dir) {
-                    if(!moves.isCapturing()) {
-                        moves.add(new Move(i, cell));
-                    }
-                } else {
-                    int captureCell = i+leap*2+d2;
-                    if(captureCell >= 0 && captureCell < board.length &&
-                            isCellEmpty(captureCell) &&
-                            getChip(cell) != null &&
-                            getChip(cell).getPlayer() != c.getPlayer() &&
-                            Math.abs(captureCell/leap) == row+dir*2) {
-                        if(!moves.isCapturing()) {
-                            moves.clear();
-                            moves.setCapturing(true);
-                        }
-                        moves.add(new Move(i, captureCell, cell));
+        IntMoveList moves = new IntMoveList(8);
+        int player = getPlayerAt(i);
+        if(player != 0) {
+            moves.setCapturing(addMovesForChip(i, player, moves));
+        }
+        return moves.toMoveCollection();
+    }
+
+    /**
+     * Appends the valid moves a chip can make to a list of packed moves,
+     * following the same rules as {@link #getValidMovesForChip(int)}.
+     *
+     * @param i Cell index for chip.
+     * @param player    The owner of the chip.
+     * @param moves The list to append to.
+     * @return  True if the appended moves are capturing moves.
+     */
+    private boolean addMovesForChip(int i, int player, IntMoveList moves) {
+        int mark = moves.size();
+        boolean capturing = false;
+        long[] opponent = pieces[player%2+1];
+        int[] steps = geometry.getSteps();
+        int[] jumps = geometry.getJumps();
+
+        int first = player == 2 ? 0 : 2;
+        int directions = isKing(i) ? 4 : 2;
+        for(int n=0;n<directions;n++) {
+            int k = i * BoardGeometry.DIRECTIONS + ((first + n) & 3);
+            int cell = steps[k];
+            if(cell < 0) {
+                continue;
+            }
+            if(isCellEmpty(cell)) {
+                if(!capturing) {
+                    moves.add(IntMove.pack(i, cell, -1));
+                }
+            } else {
+                int captureCell = jumps[k];
+                if(captureCell >= 0 && Bitboard.test(opponent, cell) &&
+                        isCellEmpty(captureCell)) {
+                    if(!capturing) {
+                        moves.truncate(mark);
+                        capturing = true;
                     }
+                    moves.add(IntMove.pack(i, captureCell, cell));
                 }
             }
         }
 
-        return moves;
+        return capturing;
+    }
+
+    /**
+     * Checks whether the chip on a cell has a capturing move.
+     *
+     * @param i Cell index for chip.
+     * @return  True if the chip can capture.
+     */
+    private boolean canCapture(int i) {
+        long[] opponent = pieces[getPlayerAt(i)%2+1];
+        int[] steps = geometry.getSteps();
+        int[] jumps = geometry.getJumps();
+
+        int first = getPlayerAt(i) == 2 ? 0 : 2;
+        int directions = isKing(i) ? 4 : 2;
+        for(int n=0;n<directions;n++) {
+            int k = i * BoardGeometry.DIRECTIONS + ((first + n) & 3);
+            int cell = steps[k];
+            int captureCell = jumps[k];
+            if(captureCell >= 0 && Bitboard.test(opponent, cell) &&
+                    isCellEmpty(captureCell)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -329,64 +777,169 @@ public class Checkers {
      * @return  Collection of possible moves.
      */
     public MoveCollection getValidMoves(int player) {
-        if(multiMoves != null) {
-            return multiMoves;
-        }
-        MoveCollection moves = new MoveCollection();
-        for(int i=0;i<board.length;i++) {
-            Chip c = getChip(i);
-            if(c != null && c.getPlayer() == player) {
-                MoveCollection chipMoves = getValidMovesForChip(i);
-                if(!moves.isCapturing() && chipMoves.isCapturing()) {
-                    moves.setCapturing(true);
-                    moves.clear();
-                }
-                if(chipMoves.size() > 0 && (!moves.isCapturing() ||
-                        chipMoves.isCapturing())) {
-                    moves.addAll(chipMoves);
-                }
+        IntMoveList moves = new IntMoveList();
+        generateMoves(player, moves);
+        return moves.toMoveCollection();
+    }
+
+    /**
+     * Fills a list with the packed moves that the current player can take,
+     * see {@link #getValidMoves()}.
+     *
+     * @param moves The list to fill, cleared first.
+     */
+    public void generateMoves(IntMoveList moves) {
+        generateMoves(getCurrentPlayer(), moves);
+    }
+
+    /**
+     * Fills a list with the packed moves that the specified player can take,
+     * see {@link #getValidMoves(int)}.
+     *
+     * While a multi-leg move is in progress only the moves continuing it are
+     * valid, whichever player is specified.
+     *
+     * @param player    The player identifier to find moves for.
+     * @param moves The list to fill, cleared first.
+     */
+    public void generateMoves(int player, IntMoveList moves) {
+        moves.clear();
+        if(multiCell >= 0) {
+            addMovesForChip(multiCell, getPlayerAt(multiCell), moves);
+            moves.setCapturing(true);
+            return;
+        }
+        long[] own = pieces[player];
+        for(int i=Bitboard.next(own, 0);i>=0;i=Bitboard.next(own, i+1)) {
+            int mark = moves.size();
+            boolean capturing = addMovesForChip(i, player, moves);
+            if(capturing && !moves.isCapturing()) {
+                moves.removeFirst(mark);
+                moves.setCapturing(true);
+            } else if(!capturing && moves.isCapturing()) {
+                moves.truncate(mark);
+            }
+        }
+    }
+
+    /**
+     * Returns a collection of the complete turns that the current player can
+     * take, each multi-jump as a single move object with its remaining legs
+     * linked through {@link Move#getNext()}.
+     *
+     * @return  Collection of possible turns.
+     */
+    public MoveCollection getValidTurns() {
+        TurnList turns = new TurnList();
+        generateTurns(turns, true);
+        return turns.toMoveCollection();
+    }
+
+    /**
+     * Fills a list with the turns that the current player can take.
+     *
+     * With composite turns, each capture is followed through every
+     * continuation until the turn passes, so that a multi-jump becomes a
+     * single turn with all of its legs. Otherwise every move is a turn of
+     * its own, as with {@link #generateMoves(IntMoveList)}.
+     *
+     * @param turns The list to fill, cleared first.
+     * @param composite True to combine the legs of multi-jumps.
+     */
+    public void generateTurns(TurnList turns, boolean composite) {
+        turns.clear();
+        IntMoveList moves = turns.getLegList(0);
+        generateMoves(moves);
+        turns.setCapturing(moves.isCapturing());
+        for(int i=0;i<moves.size();i++) {
+            if(composite && IntMove.isCapture(moves.get(i))) {
+                addCapturePaths(moves.get(i), turns, 1);
+            } else {
+                turns.push(moves.get(i));
+                turns.addPath();
+                turns.pop();
             }
         }
-        return moves;
+    }
+
+    /**
+     * Adds every capture path starting with a leg to a list of turns.
+     *
+     * @param move  Packed capturing move.
+     * @param turns The list to add to.
+     * @param leg   Number of legs of the path once the move is added.
+     */
+    private void addCapturePaths(int move, TurnList turns, int leg) {
+        turns.push(move);
+        makeMove(move);
+        if(multiCell >= 0) {
+            IntMoveList moves = turns.getLegList(leg);
+            generateMoves(moves);
+            for(int i=0;i<moves.size();i++) {
+                addCapturePaths(moves.get(i), turns, leg + 1);
+            }
+        } else {
+            turns.addPath();
+        }
+        unmakeMove(move);
+        turns.pop();
     }
 
     /**
      * Invokes the minimax algorithm to find the next best possible move for
      * the current player to take.
      *
-     * The minimax evaluation for each possible move takes place in a
-     * separate thread produced by newCachedThreadPool. The results of each
-     * evaluation are then collected and the move associated with the highest
-     * evaluation result is returned.
+     * The search is run by this game's engine, see {@link Engine}.
      *
      * @param maxDepth  The max depth for minimax.
      * @return  Move object representing the next best move.
      */
     public Move getNextBestMove(int maxDepth) {
-        MoveCollection moves = getValidMoves();
-        if(moves.size() == 1) {
-            return moves.get(0);
-        }
-        ExecutorService pool = Executors.newCachedThreadPool();
-
-        return Objects.requireNonNull(moves.stream()
-                .map(move -> {
-                    Checkers child = new Checkers(this);
-                    child.moveChip(move);
-                    return CompletableFuture
-                            .supplyAsync(() -> child.minimax(
-                                    maxDepth,
-                                    getCurrentPlayer() % 2 + 1,
-                                    Integer.MIN_VALUE,
-                                    Integer.MAX_VALUE
-                            ), pool)
-                            .thenApply(score -> new Pair<>(score, move));
-                })
-                .collect(Collectors.toList())
-                .stream()
-                .map(CompletableFuture::join)
-                .reduce((a, b) -> a.getKey() > b.getKey() ? a : b)
-                .orElse(null)).getValue();
+        return getEngine().search(this, maxDepth, null);
+    }
+
+    /**
+     * Finds the next best possible move for the current player within a
+     * time budget using iterative deepening.
+     *
+     * The moves are searched to depth 0, 1, 2 and so on until the budget
+     * runs out, and the best move from the deepest completed iteration is
+     * returned. If not even the first iteration completes in time, the first
+     * valid move is returned.
+     *
+     * @param budget    Time allowed for the search.
+     * @return  Move object representing the next best move.
+     */
+    public Move getNextBestMove(Duration budget) {
+        return getEngine().search(this, Engine.MAX_DEPTH, budget);
+    }
+
+    /**
+     * Invokes the minimax algorithm to find the next best possible move for
+     * the current player, stopping early if the token is cancelled.
+     *
+     * Once cancelled the search stops within a node and this returns
+     * promptly with the best move found so far, or the first valid move.
+     *
+     * @param maxDepth  The max depth for minimax.
+     * @param token Token cancelling the search from another thread.
+     * @return  Move object representing the next best move.
+     */
+    public Move getNextBestMove(int maxDepth, CancellationToken token) {
+        return getEngine().search(this, maxDepth, null, token, null);
+    }
+
+    /**
+     * Finds the next best possible move for the current player within a
+     * time budget, stopping early if the token is cancelled, see
+     * {@link #getNextBestMove(int, CancellationToken)}.
+     *
+     * @param budget    Time allowed for the search.
+     * @param token Token cancelling the search from another thread.
+     * @return  Move object representing the next best move.
+     */
+    public Move getNextBestMove(Duration budget, CancellationToken token) {
+        return getEngine().search(this, Engine.MAX_DEPTH, budget, token, null);
     }
 
     /**
@@ -407,51 +960,14 @@ public class Checkers {
      * @param player    The player to calculate the heuristic for.
      * @return  The heuristic value.
      */
-    private int heuristic(int player) {
+    int heuristic(int player) {
         int scoreMaximise = getPlayerScore(player);
         int scoreMinimise = getPlayerScore(player%2+1);
-        int captures = (int) getValidMoves(player%2+1)
-                        .stream()
-                        .filter(Move::isCapture)
-                        .count();
-        return scoreMaximise - scoreMinimise - captures;
-    }
-
-    /**
-     * The minimax implementation.
-     *
-     * @param d Depth to which search tree is explored.
-     * @param p The maximising player identifier.
-     * @param a Alpha.
-     * @param b Beta.
-     * @return  Evaluation result for this board instance.
-     */
-    private int minimax(int d, int p, int a, int b) {
-        MoveCollection moves = getValidMoves();
-        int best = getCurrentPlayer() == p ? Integer.MIN_VALUE :
-                Integer.MAX_VALUE;
-
-        if(moves.isEmpty() || d == 0) {
-            return heuristic(getCurrentPlayer()%2+1);
+        if(scratch == null) {
+            scratch = new IntMoveList();
         }
-
-        for(Move move: moves) {
-            Checkers child = new Checkers(this);
-            child.moveChip(move);
-            int current = child.minimax(d-1, p, a, b);
-            if(getCurrentPlayer() == p) {
-                best = Math.max(best, current);
-                a = Math.max(a, current);
-            } else {
-                best = Math.min(best, current);
-                b = Math.min(b, current);
-            }
-
-            if(a >= b) {
-                break;
-            }
-        }
-
-        return best;
+        generateMoves(player%2+1, scratch);
+        int captures = scratch.isCapturing() ? scratch.size() : 0;
+        return scoreMaximise - scoreMinimise - captures;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,801 @@
+package checkers;
+
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Engine {
+
+    /**
+     * Deepest iteration attempted by a search.
+     */
+    public static final int MAX_DEPTH = 60;
+
+    /**
+     * Depth of the search predicting the opponent's move when the
+     * transposition table has no move for it.
+     */
+    private static final int PREDICT_DEPTH = 2;
+
+    /**
+     * Engine shared by games that have not been given one.
+     */
+    private static Engine defaultEngine;
+
+    /**
+     * Number of search threads.
+     */
+    private final int threads;
+
+    /**
+     * Long-lived pool the search threads run on, null for a single thread.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Transposition table shared by all search threads.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Search the transposition table's best move first.
+     */
+    private volatile boolean hashMoveOrdering = true;
+
+    /**
+     * Search killer moves after the hash move.
+     */
+    private volatile boolean killerMoves = true;
+
+    /**
+     * Order remaining moves by the history heuristic.
+     */
+    private volatile boolean historyHeuristic = true;
+
+    /**
+     * Extend the search past the max depth with capture sequences.
+     */
+    private volatile boolean quiescence = true;
+
+    /**
+     * Search each multi-jump as a single turn.
+     */
+    private volatile boolean compositeMoves = true;
+
+    /**
+     * Total nodes visited by all searches on this engine.
+     */
+    private final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * Running totals of the searches made by this engine.
+     */
+    private final EngineMetrics metrics = new EngineMetrics();
+
+    /**
+     * Background search started by ponder, or null if none is running.
+     */
+    private Ponder ponder;
+
+    /**
+     * Thread coordinating background searches, created on first use.
+     */
+    private ExecutorService ponderThread;
+
+    /**
+     * Opening books consulted before searching, indexed by board size.
+     */
+    private final ConcurrentHashMap<Integer, OpeningBook> openingBooks =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Source of randomness for picking book moves.
+     */
+    private final Random random = new Random();
+
+    /**
+     * Endgame tablebases consulted by searches, indexed by board size.
+     */
+    private final ConcurrentHashMap<Integer, Tablebase> tablebases =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Search engine running a parallel minimax over a shared transposition
+     * table.
+     *
+     * @param threads   Number of search threads.
+     * @param table The transposition table.
+     */
+    public Engine(int threads, TranspositionTable table) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.threads = threads;
+        this.table = table;
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    /**
+     * Search engine with a default sized transposition table.
+     *
+     * @param threads   Number of search threads.
+     */
+    public Engine(int threads) {
+        this(threads, new TranspositionTable(
+                TranspositionTable.DEFAULT_ENTRIES));
+    }
+
+    /**
+     * @return  Engine shared by games that have not been given one, using a
+     * thread per available processor, the opening books in the directory
+     * named by the checkers.books system property, "books" by default, and
+     * the tablebases in the directory named by the checkers.tablebases
+     * system property, "tablebases" by default, where they exist.
+     */
+    public static synchronized Engine getDefault() {
+        if(defaultEngine == null) {
+            defaultEngine = new Engine(
+                    Runtime.getRuntime().availableProcessors());
+            Path books = Paths.get(System.getProperty("checkers.books",
+                    "books"));
+            Path tablebases = Paths.get(System.getProperty(
+                    "checkers.tablebases", "tablebases"));
+            try {
+                defaultEngine.metrics.register("default");
+            } catch(JMException e) {
+                System.err.println("Engine metrics not registered: " +
+                        e.getMessage());
+            }
+            try {
+                if(Files.isDirectory(books)) {
+                    defaultEngine.loadOpeningBooks(books);
+                }
+                if(Files.isDirectory(tablebases)) {
+                    defaultEngine.loadTablebases(tablebases);
+                }
+            } catch(IOException e) {
+                System.err.println("Engine data not loaded: " +
+                        e.getMessage());
+            }
+        }
+        return defaultEngine;
+    }
+
+    /**
+     * @return  Number of search threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return  Transposition table shared by all search threads.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * @return  Total nodes visited by all searches on this engine.
+     */
+    public long getNodes() {
+        return nodes.get();
+    }
+
+    /**
+     * @return  Running totals of the searches made by this engine, which
+     * can be published through JMX with {@link EngineMetrics#register}.
+     */
+    public EngineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return  True if the transposition table's best move is searched first.
+     */
+    public boolean isHashMoveOrdering() {
+        return hashMoveOrdering;
+    }
+
+    /**
+     * Sets whether the transposition table's best move for a board state is
+     * searched before any other move. Takes effect from the next search.
+     *
+     * @param hashMoveOrdering  Hash move ordering flag value.
+     */
+    public void setHashMoveOrdering(boolean hashMoveOrdering) {
+        this.hashMoveOrdering = hashMoveOrdering;
+    }
+
+    /**
+     * @return  True if killer moves are searched after the hash move.
+     */
+    public boolean isKillerMoves() {
+        return killerMoves;
+    }
+
+    /**
+     * Sets whether the two most recent moves to cause a cutoff at the same
+     * ply, the killer moves, are searched after the hash move. Takes effect
+     * from the next search.
+     *
+     * @param killerMoves   Killer moves flag value.
+     */
+    public void setKillerMoves(boolean killerMoves) {
+        this.killerMoves = killerMoves;
+    }
+
+    /**
+     * @return  True if remaining moves are ordered by the history heuristic.
+     */
+    public boolean isHistoryHeuristic() {
+        return historyHeuristic;
+    }
+
+    /**
+     * Sets whether the remaining moves are ordered by how often a move
+     * between the same two cells has caused a cutoff, weighted by depth.
+     * Takes effect from the next search.
+     *
+     * @param historyHeuristic  History heuristic flag value.
+     */
+    public void setHistoryHeuristic(boolean historyHeuristic) {
+        this.historyHeuristic = historyHeuristic;
+    }
+
+    /**
+     * @param size  The dimensions of the board.
+     * @return  Opening book consulted before searching on the board size,
+     * or null for none.
+     */
+    public OpeningBook getOpeningBook(int size) {
+        return openingBooks.get(size);
+    }
+
+    /**
+     * Adds an opening book to be consulted before searching, replacing any
+     * for the same board size. While the board state is in the book, a
+     * search picks one of its book moves at random by weight instead of
+     * searching. Takes effect from the next search.
+     *
+     * @param book  The opening book.
+     */
+    public void addOpeningBook(OpeningBook book) {
+        openingBooks.put(book.getSize(), book);
+    }
+
+    /**
+     * Adds the opening books for every board size found in a directory of
+     * files written by {@link OpeningBookBuilder}.
+     *
+     * @param directory Directory holding the book files.
+     * @throws IOException  If a book file cannot be read or is malformed.
+     */
+    public void loadOpeningBooks(Path directory) throws IOException {
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                "book-*.bin")) {
+            for(Path file: files) {
+                addOpeningBook(OpeningBook.open(file));
+            }
+        }
+    }
+
+    /**
+     * @param size  The dimensions of the board.
+     * @return  Endgame tablebase consulted by searches on the board size, or
+     * null for none.
+     */
+    public Tablebase getTablebase(int size) {
+        return tablebases.get(size);
+    }
+
+    /**
+     * Adds an endgame tablebase to be consulted by searches, replacing any
+     * for the same board size. Board states it covers are scored from the
+     * table instead of being searched, and a search from a covered board
+     * state picks its move from the table without searching at all. Takes
+     * effect from the next search.
+     *
+     * @param tablebase The tablebase.
+     */
+    public void addTablebase(Tablebase tablebase) {
+        tablebases.put(tablebase.getSize(), tablebase);
+    }
+
+    /**
+     * Adds the endgame tablebases for every board size found in a directory
+     * of files written by {@link TablebaseGenerator}.
+     *
+     * @param directory Directory holding the table files.
+     * @throws IOException  If a table file cannot be read or is malformed.
+     */
+    public void loadTablebases(Path directory) throws IOException {
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                "kings-*-1-1.tb")) {
+            for(Path file: files) {
+                String name = file.getFileName().toString();
+                int size = Integer.parseInt(name.substring(6,
+                        name.indexOf('-', 6)));
+                addTablebase(Tablebase.open(directory, size));
+            }
+        }
+    }
+
+    /**
+     * @return  True if the search is extended past the max depth with
+     * capture sequences.
+     */
+    public boolean isQuiescence() {
+        return quiescence;
+    }
+
+    /**
+     * Sets whether a quiescence search runs at the max depth, searching on
+     * through any capture sequence until the board state is quiet before it
+     * is evaluated. Takes effect from the next search.
+     *
+     * @param quiescence    Quiescence search flag value.
+     */
+    public void setQuiescence(boolean quiescence) {
+        this.quiescence = quiescence;
+    }
+
+    /**
+     * @return  True if each multi-jump is searched as a single turn.
+     */
+    public boolean isCompositeMoves() {
+        return compositeMoves;
+    }
+
+    /**
+     * Sets whether the search treats a whole multi-jump as one turn taking
+     * one ply, rather than one ply for every leg. The best move is then
+     * returned with its later legs linked through {@link Move#getNext()}.
+     * Takes effect from the next search.
+     *
+     * @param compositeMoves    Composite moves flag value.
+     */
+    public void setCompositeMoves(boolean compositeMoves) {
+        this.compositeMoves = compositeMoves;
+    }
+
+    /**
+     * Finds the next best possible move for the current player.
+     *
+     * A board state in the opening book is answered with a book move, and
+     * one covered by the tablebase with a move from the table, without
+     * searching. A board state already being searched in the background by
+     * {@link #ponder(Checkers, int)} is answered by that search.
+     *
+     * Every search thread runs iterative deepening on its own copy of the
+     * board, sharing bounds and best moves through the transposition table
+     * (Lazy SMP). Helper threads start on alternate depths and in a rotated
+     * move order so that they fill the table ahead of the main thread rather
+     * than repeating its work. Within the tree, moves are searched in the
+     * order set by the move ordering flags. Once the main thread finishes, or
+     * the budget runs out, the helpers are stopped and the best move from the
+     * deepest completed iteration is returned.
+     *
+     * With composite moves enabled a multi-jump is returned whole, otherwise
+     * only its first leg is, and the search is repeated for each later leg.
+     *
+     * @param position  The board state to search from.
+     * @param maxDepth  The max depth for minimax.
+     * @param budget    Time allowed for the search, or null for no limit.
+     * @return  Move object representing the next best move, or null if the
+     * current player has no valid moves.
+     */
+    public Move search(Checkers position, int maxDepth, Duration budget) {
+        return search(position, maxDepth, budget, null, null);
+    }
+
+    /**
+     * Finds the next best possible move for the current player, see
+     * {@link #search(Checkers, int, Duration)}, reporting progress and
+     * stopping early on request.
+     *
+     * Once the token is cancelled every search thread stops at its next
+     * node, and the best move from the deepest completed iteration, or else
+     * the first valid move, is returned without waiting for the search to
+     * complete.
+     *
+     * @param position  The board state to search from.
+     * @param maxDepth  The max depth for minimax.
+     * @param budget    Time allowed for the search, or null for no limit.
+     * @param token Token cancelling the search from another thread, or null
+     * for none.
+     * @param listener  Receives each completed iteration, or null for none.
+     * Not called for moves found without searching.
+     * @return  Move object representing the next best move, or null if the
+     * current player has no valid moves.
+     */
+    public Move search(Checkers position, int maxDepth, Duration budget,
+                       CancellationToken token, SearchListener listener) {
+        return analyse(position, maxDepth, budget, token, listener).getMove();
+    }
+
+    /**
+     * Finds the next best possible move for the current player as
+     * {@link #search(Checkers, int, Duration, CancellationToken,
+     * SearchListener)} does, returning it with the statistics of the search
+     * and adding them to the engine's metrics. The request is recorded as a
+     * checkers.Search flight recorder event, see {@link EngineEvents}.
+     *
+     * @param position  The board state to search from.
+     * @param maxDepth  The max depth for minimax.
+     * @param budget    Time allowed for the search, or null for no limit.
+     * @param token Token cancelling the search from another thread, or null
+     * for none.
+     * @param listener  Receives each completed iteration, or null for none.
+     * @return  The best move, null if the current player has no valid
+     * moves, with how it was found and the statistics of the search.
+     */
+    public SearchResult analyse(Checkers position, int maxDepth,
+                                Duration budget, CancellationToken token,
+                                SearchListener listener) {
+        EngineEvents.SearchEvent event = new EngineEvents.SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+        TurnList turns = new TurnList();
+        new Checkers(position).generateTurns(turns, compositeMoves);
+        SearchResult result;
+        if(turns.size() <= 1) {
+            result = new SearchResult(turns.isEmpty() ? null :
+                    turns.toMove(0), SearchResult.Source.FORCED,
+                    System.nanoTime() - start);
+        } else {
+            result = findMove(position, turns, maxDepth, budget, token,
+                    listener, start);
+        }
+        metrics.record(result);
+        if(event.shouldCommit()) {
+            event.size = position.getSize();
+            event.maxDepth = maxDepth;
+            event.depth = result.getDepth();
+            event.nodes = result.getNodes();
+            event.threads = result.getThreads();
+            event.source = result.getSource().name();
+            event.move = result.getMove() != null ?
+                    Notation.formatMove(result.getMove()) : null;
+            event.score = result.getScore();
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Finds the best move from a board state with more than one valid turn,
+     * from the opening book, the tablebase, the background search or else a
+     * new search.
+     *
+     * @param position  The board state to search from.
+     * @param turns Valid turns from the board state.
+     * @param maxDepth  The max depth for minimax.
+     * @param budget    Time allowed for the search, or null for no limit.
+     * @param token Token cancelling the search, or null for none.
+     * @param listener  Receives each completed iteration, or null for none.
+     * @param start System.nanoTime value at which the request was made.
+     * @return  The search result.
+     */
+    private SearchResult findMove(Checkers position, TurnList turns,
+                                  int maxDepth, Duration budget,
+                                  CancellationToken token,
+                                  SearchListener listener, long start) {
+        IntMoveList moves = new IntMoveList();
+        position.generateMoves(moves);
+        OpeningBook book = getOpeningBook(position.getSize());
+        if(book != null) {
+            int bookMove = book.getMove(position, moves, random);
+            int turn = findTurn(turns, bookMove);
+            if(turn >= 0) {
+                return new SearchResult(turns.toMove(turn),
+                        SearchResult.Source.BOOK, System.nanoTime() - start);
+            }
+        }
+        int turn = findTurn(turns, getTablebaseMove(position, moves));
+        if(turn >= 0) {
+            return new SearchResult(turns.toMove(turn),
+                    SearchResult.Source.TABLEBASE, System.nanoTime() - start);
+        }
+
+        Ponder ponder = takePonder();
+        if(ponder != null) {
+            if(ponder.isHit(position, maxDepth, budget)) {
+                return ponder.finish(budget, token);
+            }
+            ponder.cancel();
+        }
+
+        return runSearch(position, turns, maxDepth, budget, token, listener,
+                SearchResult.Source.SEARCH);
+    }
+
+    /**
+     * Finds the turn a single leg move from the opening book or tablebase
+     * begins, so that it is played as a whole when turns are composite.
+     * When several composite turns begin with the same leg the search is
+     * left to choose between them.
+     *
+     * @param turns Valid turns from the board state.
+     * @param move  The first leg, or IntMove.NONE.
+     * @return  Index of the only turn beginning with the leg, or -1.
+     */
+    private static int findTurn(TurnList turns, int move) {
+        if(move == IntMove.NONE) {
+            return -1;
+        }
+        int found = -1;
+        for(int i=0;i<turns.size();i++) {
+            if(turns.getFirst(i) == move) {
+                if(found >= 0) {
+                    return -1;
+                }
+                found = i;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Scores a board state for the current player by searching it to the
+     * specified depth. Neither the opening book nor a tablebase move at the
+     * root is used, but the search consults the tablebase as usual.
+     *
+     * @param position  The board state to score.
+     * @param maxDepth  The max depth for minimax.
+     * @return  Minimax score from the perspective of the current player.
+     */
+    public int evaluate(Checkers position, int maxDepth) {
+        TurnList turns = new TurnList();
+        new Checkers(position).generateTurns(turns, compositeMoves);
+        if(turns.isEmpty()) {
+            return position.heuristic(position.getCurrentPlayer());
+        }
+        EngineEvents.PositionScoreEvent event =
+                new EngineEvents.PositionScoreEvent();
+        event.begin();
+        SearchResult result = runSearch(position, turns, maxDepth, null,
+                null, null, SearchResult.Source.SEARCH);
+        metrics.record(result);
+        if(event.shouldCommit()) {
+            event.size = position.getSize();
+            event.depth = result.getDepth();
+            event.nodes = result.getNodes();
+            event.score = result.getScore();
+            event.commit();
+        }
+        return result.getScore();
+    }
+
+    /**
+     * Runs the search threads over the root turns, see
+     * {@link #search(Checkers, int, Duration)}.
+     *
+     * @param position  The board state to search from.
+     * @param turns Valid turns from the board state.
+     * @param maxDepth  The max depth for minimax.
+     * @param budget    Time allowed for the search, or null for no limit.
+     * @param token Token cancelling the search, or null for none.
+     * @param listener  Receives each completed iteration, or null for none.
+     * @param source    How the result is reported to have been found.
+     * @return  The best turn of the worker that completed the deepest
+     * iteration, with the statistics of every worker.
+     */
+    private SearchResult runSearch(Checkers position, TurnList turns,
+                                   int maxDepth, Duration budget,
+                                   CancellationToken token,
+                                   SearchListener listener,
+                                   SearchResult.Source source) {
+        long deadline = 0;
+        if(budget != null) {
+            deadline = System.nanoTime() + budget.toNanos();
+            if(deadline == 0) {
+                deadline = 1;
+            }
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        SearchContext search = new SearchContext(Math.min(maxDepth,
+                MAX_DEPTH), deadline, stop, token, listener);
+        SearchWorker[] workers = new SearchWorker[threads];
+        for(int i=0;i<threads;i++) {
+            workers[i] = new SearchWorker(this, new Checkers(position),
+                    turns, i, search);
+        }
+
+        if(pool == null) {
+            workers[0].run();
+        } else {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(threads);
+            for(SearchWorker worker: workers) {
+                tasks.add(pool.submit(worker));
+            }
+            tasks.get(0).join();
+            stop.set(true);
+            for(ForkJoinTask<?> task: tasks) {
+                task.join();
+            }
+        }
+
+        nodes.addAndGet(search.getNodes());
+        SearchWorker best = workers[0];
+        for(SearchWorker worker: workers) {
+            if(worker.getCompletedDepth() > best.getCompletedDepth()) {
+                best = worker;
+            }
+        }
+        return search.toResult(turns.toMove(Math.max(best.getBestTurn(), 0)),
+                source, best.getBestScore(), best.getCompletedDepth(),
+                threads, workers[0].getBranchingFactor());
+    }
+
+    /**
+     * Picks a move from the tablebase: the quickest win, otherwise a draw,
+     * otherwise the slowest loss.
+     *
+     * @param position  The board state to move from.
+     * @param moves Valid packed moves from the board state.
+     * @return  Packed move, or {@link IntMove#NONE} if the tablebase does not
+     * cover the board state.
+     */
+    private int getTablebaseMove(Checkers position, IntMoveList moves) {
+        Tablebase tablebase = getTablebase(position.getSize());
+        if(tablebase == null || tablebase.probe(position) == Tablebase.NONE) {
+            return IntMove.NONE;
+        }
+        Checkers board = new Checkers(position);
+        int best = IntMove.NONE;
+        int bestRank = Integer.MIN_VALUE;
+        for(int i=0;i<moves.size();i++) {
+            board.makeMove(moves.get(i));
+            int value = tablebase.probe(board);
+            board.unmakeMove(moves.get(i));
+            if(value == Tablebase.NONE) {
+                return IntMove.NONE;
+            }
+            int distance = Tablebase.getDistance(value);
+            int rank = Tablebase.isLoss(value) ? Tablebase.MAX_DISTANCE -
+                    distance : Tablebase.isWin(value) ? distance -
+                    Tablebase.MAX_DISTANCE : 0;
+            if(rank > bestRank) {
+                bestRank = rank;
+                best = moves.get(i);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Starts searching in the background, while the opponent is thinking,
+     * from the board state expected after their move.
+     *
+     * The opponent's move is predicted from the transposition table, which
+     * usually holds it from this engine's previous search, or else from a
+     * shallow search. If the next search on this engine is from the
+     * predicted board state, to the same depth or for a time budget, it is
+     * answered by the background search: immediately if it has completed,
+     * otherwise once it completes or the budget runs out. Any other search
+     * stops the background search first, but still benefits from the
+     * entries it left in the transposition table.
+     *
+     * Any background search already running is stopped.
+     *
+     * @param position  The board state with the opponent to move.
+     * @param maxDepth  The max depth for minimax, {@link #MAX_DEPTH} for
+     * games played on a time budget.
+     */
+    public synchronized void ponder(Checkers position, int maxDepth) {
+        stopPondering();
+        Checkers board = new Checkers(position);
+        int opponent = board.getCurrentPlayer();
+        IntMoveList moves = new IntMoveList();
+        while(board.getCurrentPlayer() == opponent) {
+            board.generateMoves(moves);
+            if(moves.isEmpty()) {
+                return;
+            }
+            board.makeMove(predictMove(board, moves));
+        }
+        TurnList turns = new TurnList();
+        board.generateTurns(turns, compositeMoves);
+        if(turns.size() <= 1) {
+            return;
+        }
+
+        if(ponderThread == null) {
+            ponderThread = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "checkers-ponder");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        CancellationToken token = new CancellationToken();
+        int depth = Math.min(maxDepth, MAX_DEPTH);
+        CompletableFuture<SearchResult> result = CompletableFuture
+                .supplyAsync(() -> runSearch(board, turns, depth, null, token,
+                        null, SearchResult.Source.PONDER), ponderThread);
+        ponder = new Ponder(board.getHash(), maxDepth, token, result);
+    }
+
+    /**
+     * Stops any background search started by {@link #ponder(Checkers, int)}
+     * and waits for it to finish.
+     */
+    public synchronized void stopPondering() {
+        if(ponder != null) {
+            ponder.cancel();
+            ponder = null;
+        }
+    }
+
+    /**
+     * @return  True if a background search is running or waiting for the
+     * next search to collect it.
+     */
+    public synchronized boolean isPondering() {
+        return ponder != null;
+    }
+
+    /**
+     * Removes the background search so that the next search can either
+     * collect or stop it.
+     *
+     * @return  The background search, or null if none.
+     */
+    private synchronized Ponder takePonder() {
+        Ponder ponder = this.ponder;
+        this.ponder = null;
+        return ponder;
+    }
+
+    /**
+     * Predicts the move the player to move will make.
+     *
+     * @param board The board state.
+     * @param moves Valid packed moves from the board state.
+     * @return  Packed move, the transposition table's best move if it is
+     * valid, otherwise the first leg of the best turn of a shallow search.
+     */
+    private int predictMove(Checkers board, IntMoveList moves) {
+        long entry = table.probe(board.getHash());
+        if(entry != 0 && moves.contains(TranspositionTable.getMove(entry))) {
+            return TranspositionTable.getMove(entry);
+        }
+        if(moves.size() == 1) {
+            return moves.get(0);
+        }
+        TurnList turns = new TurnList();
+        board.generateTurns(turns, compositeMoves);
+        SearchResult result = runSearch(board, turns, PREDICT_DEPTH, null,
+                null, null, SearchResult.Source.SEARCH);
+        return IntMove.fromMove(result.getMove());
+    }
+
+    /**
+     * Stops the search threads. The engine cannot be used afterwards.
+     */
+    public void shutdown() {
+        metrics.unregister();
+        stopPondering();
+        if(ponderThread != null) {
+            ponderThread.shutdownNow();
+        }
+        if(pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package checkers;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+final class EngineEvents {
+
+    /**
+     * Category every engine event is listed under.
+     */
+    private static final String CATEGORY = "Checkers";
+
+    /**
+     * Number of move generations or evaluations timed by one batch event.
+     */
+    static final int BATCH_SIZE = 4096;
+
+    /**
+     * JDK Flight Recorder events emitted by the engine, so that a recording
+     * can attribute the time of a turn to its phases. Events are only
+     * filled in when {@link Event#shouldCommit()} says they will be
+     * recorded, so they cost little more than a branch when JFR is not
+     * recording.
+     */
+    private EngineEvents() {
+    }
+
+    /**
+     * A request for the best move, from the opening book, the tablebase,
+     * the background search or a new search.
+     */
+    @Name("checkers.Search")
+    @Label("Search")
+    @Category({CATEGORY, "Engine"})
+    @Description("Finding the best move for the player to move")
+    @StackTrace(false)
+    static final class SearchEvent extends Event {
+
+        /**
+         * The dimensions of the board.
+         */
+        @Label("Board Size")
+        int size;
+
+        /**
+         * The max depth requested.
+         */
+        @Label("Max Depth")
+        int maxDepth;
+
+        /**
+         * Depth of the deepest completed iteration.
+         */
+        @Label("Depth")
+        int depth;
+
+        /**
+         * Nodes visited by all search threads.
+         */
+        @Label("Nodes")
+        long nodes;
+
+        /**
+         * Number of search threads.
+         */
+        @Label("Threads")
+        int threads;
+
+        /**
+         * How the move was found.
+         */
+        @Label("Source")
+        String source;
+
+        /**
+         * The best move in standard notation.
+         */
+        @Label("Move")
+        String move;
+
+        /**
+         * Score of the best move from the perspective of the player to move.
+         */
+        @Label("Score")
+        int score;
+    }
+
+    /**
+     * One iteration of iterative deepening by one search thread, with the
+     * number of move generations and evaluations it made. The time spent in
+     * them is recorded by {@link MoveGenerationEvent} and
+     * {@link EvaluationEvent}.
+     */
+    @Name("checkers.Iteration")
+    @Label("Search Iteration")
+    @Category({CATEGORY, "Engine"})
+    @Description("One iteration of iterative deepening by one search thread")
+    @StackTrace(false)
+    static final class IterationEvent extends Event {
+
+        /**
+         * The dimensions of the board.
+         */
+        @Label("Board Size")
+        int size;
+
+        /**
+         * Worker number, 0 for the main worker.
+         */
+        @Label("Worker")
+        int worker;
+
+        /**
+         * Depth of the iteration.
+         */
+        @Label("Depth")
+        int depth;
+
+        /**
+         * Nodes visited by the worker during the iteration.
+         */
+        @Label("Nodes")
+        long nodes;
+
+        /**
+         * Turn lists generated during the iteration.
+         */
+        @Label("Move Generations")
+        long moveGenerations;
+
+        /**
+         * Turns generated during the iteration.
+         */
+        @Label("Turns Generated")
+        long turns;
+
+        /**
+         * Board states evaluated by the heuristic during the iteration.
+         */
+        @Label("Evaluations")
+        long evaluations;
+
+        /**
+         * True if the iteration completed rather than being stopped.
+         */
+        @Label("Completed")
+        boolean completed;
+
+        /**
+         * Best move of the completed iteration in standard notation.
+         */
+        @Label("Move")
+        String move;
+
+        /**
+         * Score of the best move of the completed iteration.
+         */
+        @Label("Score")
+        int score;
+    }
+
+    /**
+     * The search of one root turn within an iteration by one search thread.
+     */
+    @Name("checkers.RootMove")
+    @Label("Root Move")
+    @Category({CATEGORY, "Engine"})
+    @Description("Searching one root turn within an iteration")
+    @StackTrace(false)
+    static final class RootMoveEvent extends Event {
+
+        /**
+         * The dimensions of the board.
+         */
+        @Label("Board Size")
+        int size;
+
+        /**
+         * Worker number, 0 for the main worker.
+         */
+        @Label("Worker")
+        int worker;
+
+        /**
+         * Depth of the iteration.
+         */
+        @Label("Depth")
+        int depth;
+
+        /**
+         * The root turn in standard notation.
+         */
+        @Label("Move")
+        String move;
+
+        /**
+         * Nodes visited searching the turn.
+         */
+        @Label("Nodes")
+        long nodes;
+
+        /**
+         * Score of the turn from the perspective of the player to move.
+         */
+        @Label("Score")
+        int score;
+    }
+
+    /**
+     * A batch of up to {@link #BATCH_SIZE} move generations by one search
+     * thread. Each takes well under a microsecond, too little for an event
+     * of its own, so the batch carries the time spent generating while the
+     * event itself spans the search around it.
+     */
+    @Name("checkers.MoveGeneration")
+    @Label("Move Generation")
+    @Category({CATEGORY, "Engine"})
+    @Description("Time spent generating turns in a batch of generations")
+    @StackTrace(false)
+    static final class MoveGenerationEvent extends Event {
+
+        /**
+         * The dimensions of the board.
+         */
+        @Label("Board Size")
+        int size;
+
+        /**
+         * Worker number, 0 for the main worker.
+         */
+        @Label("Worker")
+        int worker;
+
+        /**
+         * Depth of the iteration.
+         */
+        @Label("Depth")
+        int depth;
+
+        /**
+         * Turn lists generated.
+         */
+        @Label("Move Generations")
+        int generations;
+
+        /**
+         * Turns generated.
+         */
+        @Label("Turns Generated")
+        long turns;
+
+        /**
+         * Time spent generating.
+         */
+        @Label("Generation Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+
+    /**
+     * A batch of up to {@link #BATCH_SIZE} heuristic evaluations by one
+     * search thread, carrying the time spent evaluating as
+     * {@link MoveGenerationEvent} does for move generation.
+     */
+    @Name("checkers.Evaluation")
+    @Label("Evaluation")
+    @Category({CATEGORY, "Engine"})
+    @Description("Time spent in the heuristic in a batch of evaluations")
+    @StackTrace(false)
+    static final class EvaluationEvent extends Event {
+
+        /**
+         * The dimensions of the board.
+         */
+        @Label("Board Size")
+        int size;
+
+        /**
+         * Worker number, 0 for the main worker.
+         */
+        @Label("Worker")
+        int worker;
+
+        /**
+         * Depth of the iteration.
+         */
+        @Label("Depth")
+        int depth;
+
+        /**
+         * Board states evaluated.
+         */
+        @Label("Evaluations")
+        int evaluations;
+
+        /**
+         * Time spent evaluating.
+         */
+        @Label("Evaluation Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+
+    /**
+     * Scoring a board state by searching it, see
+     * {@link Engine#evaluate(Checkers, int)}.
+     */
+    @Name("checkers.PositionScore")
+    @Label("Position Score")
+    @Category({CATEGORY, "Engine"})
+    @Description("Scoring a board state by searching it")
+    @StackTrace(false)
+    static final class PositionScoreEvent extends Event {
+
+        /**
+         * The dimensions of the board.
+         */
+        @Label("Board Size")
+        int size;
+
+        /**
+         * Depth of the deepest completed iteration.
+         */
+        @Label("Depth")
+        int depth;
+
+        /**
+         * Nodes visited by all search threads.
+         */
+        @Label("Nodes")
+        long nodes;
+
+        /**
+         * Score of the board state for the player to move.
+         */
+        @Label("Score")
+        int score;
+    }
+}
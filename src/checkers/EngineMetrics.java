@@ -0,0 +1,262 @@
+package checkers;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EngineMetrics implements EngineMetricsMBean {
+
+    /**
+     * Domain of the object names the metrics are registered under.
+     */
+    public static final String DOMAIN = "checkers";
+
+    /**
+     * Searches run.
+     */
+    private final LongAdder searches = new LongAdder();
+
+    /**
+     * Moves picked from an opening book.
+     */
+    private final LongAdder bookMoves = new LongAdder();
+
+    /**
+     * Moves picked from an endgame tablebase.
+     */
+    private final LongAdder tablebaseMoves = new LongAdder();
+
+    /**
+     * Nodes visited by all searches.
+     */
+    private final LongAdder nodes = new LongAdder();
+
+    /**
+     * Time spent searching in nanoseconds.
+     */
+    private final LongAdder nanos = new LongAdder();
+
+    /**
+     * Time the search threads spent searching in nanoseconds, summed over
+     * the threads.
+     */
+    private final LongAdder busyNanos = new LongAdder();
+
+    /**
+     * Time the search threads were available in nanoseconds, the search time
+     * multiplied by the number of threads.
+     */
+    private final LongAdder threadNanos = new LongAdder();
+
+    /**
+     * Nodes at which a move caused a beta cutoff.
+     */
+    private final LongAdder cutoffs = new LongAdder();
+
+    /**
+     * Nodes at which the first move searched caused a beta cutoff.
+     */
+    private final LongAdder firstMoveCutoffs = new LongAdder();
+
+    /**
+     * Transposition table lookups.
+     */
+    private final LongAdder tableProbes = new LongAdder();
+
+    /**
+     * Transposition table lookups that found the board state.
+     */
+    private final LongAdder tableHits = new LongAdder();
+
+    /**
+     * Depths of the deepest completed iterations, summed over the searches.
+     */
+    private final LongAdder depths = new LongAdder();
+
+    /**
+     * The most recent search, or null if none.
+     */
+    private volatile SearchResult last;
+
+    /**
+     * Name the metrics are registered under, or null if not registered.
+     */
+    private ObjectName name;
+
+    /**
+     * Running totals of the searches made by an engine, added to once per
+     * search from its {@link SearchResult} so that the search threads only
+     * update counters of their own. Registered with the platform MBean
+     * server the totals can be read through JMX.
+     */
+    public EngineMetrics() {
+    }
+
+    /**
+     * Adds a completed search to the totals.
+     *
+     * @param result    The search result.
+     */
+    void record(SearchResult result) {
+        last = result;
+        switch(result.getSource()) {
+            case BOOK: bookMoves.increment(); return;
+            case TABLEBASE: tablebaseMoves.increment(); return;
+            case FORCED: return;
+            default: break;
+        }
+        long time = result.getTime().toNanos();
+        searches.increment();
+        nodes.add(result.getNodes());
+        nanos.add(time);
+        busyNanos.add(result.getBusyTime().toNanos());
+        threadNanos.add(result.getThreads() * time);
+        cutoffs.add(result.getCutoffs());
+        firstMoveCutoffs.add(result.getFirstMoveCutoffs());
+        tableProbes.add(result.getTableProbes());
+        tableHits.add(result.getTableHits());
+        depths.add(Math.max(result.getDepth(), 0));
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under
+     * checkers:type=Engine,name= followed by the name given.
+     *
+     * @param name  Name telling the engine apart from others in the process.
+     * @throws JMException  If the name is invalid or already registered.
+     */
+    public synchronized void register(String name) throws JMException {
+        unregister();
+        ObjectName objectName = new ObjectName(DOMAIN +
+                ":type=Engine,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                objectName);
+        this.name = objectName;
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server, if registered.
+     */
+    public synchronized void unregister() {
+        if(name != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                server.unregisterMBean(name);
+            } catch(JMException e) {
+                // Already removed.
+            }
+            name = null;
+        }
+    }
+
+    /**
+     * @return  The most recent search, or null if none.
+     */
+    public SearchResult getLastResult() {
+        return last;
+    }
+
+    @Override
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    @Override
+    public long getBookMoves() {
+        return bookMoves.sum();
+    }
+
+    @Override
+    public long getTablebaseMoves() {
+        return tablebaseMoves.sum();
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getNodesPerSecond() {
+        long time = nanos.sum();
+        return time > 0 ? (long) (nodes.sum() * 1e9 / time) : 0;
+    }
+
+    @Override
+    public long getCutoffs() {
+        return cutoffs.sum();
+    }
+
+    @Override
+    public double getFirstMoveCutoffRate() {
+        long total = cutoffs.sum();
+        return total > 0 ? (double) firstMoveCutoffs.sum() / total : 0.0;
+    }
+
+    @Override
+    public double getTableHitRate() {
+        long total = tableProbes.sum();
+        return total > 0 ? (double) tableHits.sum() / total : 0.0;
+    }
+
+    @Override
+    public double getThreadUtilisation() {
+        long total = threadNanos.sum();
+        return total > 0 ? (double) busyNanos.sum() / total : 0.0;
+    }
+
+    @Override
+    public double getAverageDepth() {
+        long total = searches.sum();
+        return total > 0 ? (double) depths.sum() / total : 0.0;
+    }
+
+    @Override
+    public double getAverageTimeMillis() {
+        long total = searches.sum();
+        return total > 0 ? nanos.sum() / 1e6 / total : 0.0;
+    }
+
+    @Override
+    public int getLastDepth() {
+        SearchResult result = last;
+        return result != null ? result.getDepth() : -1;
+    }
+
+    @Override
+    public long getLastNodes() {
+        SearchResult result = last;
+        return result != null ? result.getNodes() : 0;
+    }
+
+    @Override
+    public double getLastTimeMillis() {
+        SearchResult result = last;
+        return result != null ? result.getTime().toNanos() / 1e6 : 0.0;
+    }
+
+    @Override
+    public double getLastBranchingFactor() {
+        SearchResult result = last;
+        return result != null ? result.getBranchingFactor() : 0.0;
+    }
+
+    @Override
+    public void reset() {
+        searches.reset();
+        bookMoves.reset();
+        tablebaseMoves.reset();
+        nodes.reset();
+        nanos.reset();
+        busyNanos.reset();
+        threadNanos.reset();
+        cutoffs.reset();
+        firstMoveCutoffs.reset();
+        tableProbes.reset();
+        tableHits.reset();
+        depths.reset();
+        last = null;
+    }
+}
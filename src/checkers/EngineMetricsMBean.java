@@ -0,0 +1,88 @@
+package checkers;
+
+public interface EngineMetricsMBean {
+
+    /**
+     * @return  Searches run for a move or a score, including ponder
+     * searches whose result was used. Ponder searches that were cancelled
+     * or missed, the short searches predicting the opponent's reply, and
+     * book, tablebase and forced moves are not counted.
+     */
+    long getSearches();
+
+    /**
+     * @return  Moves picked from an opening book.
+     */
+    long getBookMoves();
+
+    /**
+     * @return  Moves picked from an endgame tablebase.
+     */
+    long getTablebaseMoves();
+
+    /**
+     * @return  Nodes visited by all searches.
+     */
+    long getNodes();
+
+    /**
+     * @return  Nodes visited per second of searching.
+     */
+    long getNodesPerSecond();
+
+    /**
+     * @return  Nodes at which a move caused a beta cutoff.
+     */
+    long getCutoffs();
+
+    /**
+     * @return  Share of beta cutoffs caused by the first move searched.
+     */
+    double getFirstMoveCutoffRate();
+
+    /**
+     * @return  Share of transposition table lookups that found the board
+     * state.
+     */
+    double getTableHitRate();
+
+    /**
+     * @return  Share of the search threads' time spent searching.
+     */
+    double getThreadUtilisation();
+
+    /**
+     * @return  Average depth of the deepest completed iteration.
+     */
+    double getAverageDepth();
+
+    /**
+     * @return  Average time per search in milliseconds.
+     */
+    double getAverageTimeMillis();
+
+    /**
+     * @return  Depth reached by the most recent search.
+     */
+    int getLastDepth();
+
+    /**
+     * @return  Nodes visited by the most recent search.
+     */
+    long getLastNodes();
+
+    /**
+     * @return  Time taken by the most recent search in milliseconds.
+     */
+    double getLastTimeMillis();
+
+    /**
+     * @return  Effective branching factor of the most recent search.
+     */
+    double getLastBranchingFactor();
+
+    /**
+     * Sets every counter back to zero.
+     */
+    void reset();
+}
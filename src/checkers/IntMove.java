@@ -0,0 +1,91 @@
+package checkers;
+
+public final class IntMove {
+
+    /**
+     * Value that never represents a valid move.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Mask for each of the three packed cell fields.
+     */
+    private static final int MASK = 0x3FF;
+
+    /**
+     * Largest board size whose cells all fit the packed fields.
+     */
+    public static final int MAX_BOARD_SIZE = 44;
+
+    /**
+     * Static helpers only.
+     */
+    private IntMove() {
+    }
+
+    /**
+     * Packs a move into a primitive int, 10 bits each for the start cell,
+     * destination cell and captured cell plus one. Boards of up to 1023
+     * habitable cells can be represented.
+     *
+     * @param start The starting cell index of chip move.
+     * @param dest  The destination cell index of chip move.
+     * @param captured  The cell index of the captured chip, or -1.
+     * @return  Packed move.
+     */
+    public static int pack(int start, int dest, int captured) {
+        return start | (dest << 10) | ((captured + 1) << 20);
+    }
+
+    /**
+     * @param move  Packed move.
+     * @return  The starting cell index of chip move.
+     */
+    public static int getStart(int move) {
+        return move & MASK;
+    }
+
+    /**
+     * @param move  Packed move.
+     * @return  The destination cell index of chip move.
+     */
+    public static int getDest(int move) {
+        return (move >>> 10) & MASK;
+    }
+
+    /**
+     * @param move  Packed move.
+     * @return  The cell index of the captured chip, or -1.
+     */
+    public static int getCaptured(int move) {
+        return (move >>> 20) - 1;
+    }
+
+    /**
+     * @param move  Packed move.
+     * @return  True if the move is a capturing move.
+     */
+    public static boolean isCapture(int move) {
+        return (move >>> 20) != 0;
+    }
+
+    /**
+     * Converts a packed move to a move object.
+     *
+     * @param move  Packed move.
+     * @return  Move object.
+     */
+    public static Move toMove(int move) {
+        return new Move(getStart(move), getDest(move), getCaptured(move));
+    }
+
+    /**
+     * Converts a move object to a packed move.
+     *
+     * @param move  Move object.
+     * @return  Packed move.
+     */
+    public static int fromMove(Move move) {
+        return pack(move.getStart(), move.getDest(), move.getCaptured());
+    }
+}
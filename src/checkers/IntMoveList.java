@@ -0,0 +1,160 @@
+package checkers;
+
+import java.util.Arrays;
+
+public class IntMoveList {
+
+    /**
+     * Packed moves, see {@link IntMove}.
+     */
+    private int[] moves;
+
+    /**
+     * Number of moves in the list.
+     */
+    private int size;
+
+    /**
+     * Capturing moves flag.
+     */
+    private boolean capturing = false;
+
+    /**
+     * Array backed list of packed moves which grows as needed and is
+     * intended to be reused rather than reallocated.
+     */
+    public IntMoveList() {
+        this(64);
+    }
+
+    /**
+     * Array backed list of packed moves which grows as needed and is
+     * intended to be reused rather than reallocated.
+     *
+     * @param capacity  Initial capacity.
+     */
+    public IntMoveList(int capacity) {
+        moves = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * @return  Number of moves in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return  True if the list has no moves.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get a move by index.
+     *
+     * @param i The index.
+     * @return  Packed move.
+     */
+    public int get(int i) {
+        return moves[i];
+    }
+
+    /**
+     * Adds a move to the end of the list.
+     *
+     * @param move  Packed move.
+     */
+    public void add(int move) {
+        if(size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Swaps two moves in the list.
+     *
+     * @param i First index.
+     * @param j Second index.
+     */
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    /**
+     * Checks whether the list contains a move.
+     *
+     * @param move  Packed move.
+     * @return  True if the move is in the list.
+     */
+    public boolean contains(int move) {
+        for(int i=0;i<size;i++) {
+            if(moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all moves and resets the capturing flag.
+     */
+    public void clear() {
+        size = 0;
+        capturing = false;
+    }
+
+    /**
+     * Removes all moves from the specified index onwards.
+     *
+     * @param size  The new size of the list.
+     */
+    public void truncate(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Removes the specified number of moves from the start of the list.
+     *
+     * @param count Number of moves to remove.
+     */
+    public void removeFirst(int count) {
+        System.arraycopy(moves, count, moves, 0, size - count);
+        size -= count;
+    }
+
+    /**
+     * @return True if moves in list are capturing moves.
+     */
+    public boolean isCapturing() {
+        return capturing;
+    }
+
+    /**
+     * Sets capturing move flag.
+     *
+     * @param capturing Capturing move flag value.
+     */
+    public void setCapturing(boolean capturing) {
+        this.capturing = capturing;
+    }
+
+    /**
+     * Converts the list to a collection of move objects.
+     *
+     * @return  Collection of moves.
+     */
+    public MoveCollection toMoveCollection() {
+        MoveCollection collection = new MoveCollection();
+        collection.ensureCapacity(size);
+        for(int i=0;i<size;i++) {
+            collection.add(IntMove.toMove(moves[i]));
+        }
+        collection.setCapturing(capturing);
+        return collection;
+    }
+}
@@ -22,12 +22,15 @@ public class Main extends Application {
             primaryStage.hide();
             Game g = new Game(m.getGameConfig());
             g.setOnGameExit(e1 -> {
+                primaryStage.setOnCloseRequest(null);
                 primaryStage.hide();
                 primaryStage.setTitle("Checkers Setup");
                 primaryStage.setScene(menuScene);
                 primaryStage.show();
             });
 
+            primaryStage.setOnCloseRequest(e1 -> g.close());
+
             Scene gameScene = new Scene(g);
             primaryStage.setTitle("Checkers");
             primaryStage.setScene(gameScene);
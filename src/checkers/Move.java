@@ -17,6 +17,11 @@ public class Move {
      */
     private final int captured;
 
+    /**
+     * The following leg of a multi-jump, or null.
+     */
+    private final Move next;
+
     /**
      * Internal representation of a possible game move.
      *
@@ -24,9 +29,7 @@ public class Move {
      * @param dest  The destination cell index of chip move.
      */
     public Move(int start, int dest) {
-        this.start = start;
-        this.dest = dest;
-        this.captured = -1;
+        this(start, dest, -1, null);
     }
 
     /**
@@ -37,9 +40,23 @@ public class Move {
      * @param captured  The cell index of the captured chip.
      */
     public Move(int start, int dest, int captured) {
+        this(start, dest, captured, null);
+    }
+
+    /**
+     * Internal representation of a complete multi-jump, a capture followed
+     * by the remaining legs made by the same chip.
+     *
+     * @param start The starting cell index of chip move.
+     * @param dest  The destination cell index of chip move.
+     * @param captured  The cell index of the captured chip.
+     * @param next  The following leg, or null if this is the last.
+     */
+    public Move(int start, int dest, int captured, Move next) {
         this.start = start;
         this.dest = dest;
         this.captured = captured;
+        this.next = next;
     }
 
     /**
@@ -69,4 +86,32 @@ public class Move {
     public boolean isCapture() {
         return captured > -1;
     }
+
+    /**
+     * @return  The following leg of a multi-jump, or null if this is the
+     * last leg or a single move.
+     */
+    public Move getNext() {
+        return next;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof Move)) {
+            return false;
+        }
+        Move move = (Move) o;
+        return start == move.start && dest == move.dest &&
+                captured == move.captured &&
+                (next == null ? move.next == null : next.equals(move.next));
+    }
+
+    @Override
+    public int hashCode() {
+        return ((start * 31 + dest) * 31 + captured) * 31 +
+                (next == null ? 0 : next.hashCode());
+    }
 }
@@ -0,0 +1,214 @@
+package checkers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Notation {
+
+    /**
+     * Text forms of board states and moves. Cells are numbered from 1, as
+     * shown in the UI: board index + 1.
+     *
+     * A board state is written as the player to move, B for Black (player
+     * 1) or W for White (player 2), followed by the board size and each
+     * player's chips, with a K before each king:
+     * <pre>B:10:W1,2,K17:B40,K33</pre>
+     *
+     * A move is written as its cells joined by - for a step or x for a
+     * capture, with every landing cell of a multi-jump:
+     * <pre>32-27  19x28x37</pre>
+     */
+    private Notation() {
+    }
+
+    /**
+     * Formats a board state.
+     *
+     * @param checkers  The board state.
+     * @return  Board state text.
+     */
+    public static String formatPosition(Checkers checkers) {
+        StringBuilder text = new StringBuilder();
+        text.append(checkers.getCurrentPlayer() == 1 ? 'B' : 'W')
+                .append(':').append(checkers.getSize());
+        for(int player: new int[] {2, 1}) {
+            text.append(':').append(player == 1 ? 'B' : 'W');
+            boolean first = true;
+            for(int i=0;i<checkers.getCellCount();i++) {
+                if(checkers.getPlayerAt(i) == player) {
+                    if(!first) {
+                        text.append(',');
+                    }
+                    if(checkers.isKing(i)) {
+                        text.append('K');
+                    }
+                    text.append(i + 1);
+                    first = false;
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parses a board state written by {@link #formatPosition(Checkers)}.
+     *
+     * @param text  Board state text.
+     * @return  The board state.
+     * @throws IllegalArgumentException If the text is malformed.
+     */
+    public static Checkers parsePosition(String text) {
+        String[] fields = text.trim().split(":");
+        if(fields.length < 2 || fields.length > 4 ||
+                !fields[0].matches("[BW]")) {
+            throw new IllegalArgumentException("Malformed position: " + text);
+        }
+        int size = parseNumber(fields[1], text);
+        if(size < 4 || size > IntMove.MAX_BOARD_SIZE || size % 2 != 0) {
+            throw new IllegalArgumentException("Invalid board size: " + text);
+        }
+        Chip[] board = new Chip[size * size / 2];
+        for(int f=2;f<fields.length;f++) {
+            String field = fields[f];
+            if(field.isEmpty() || (field.charAt(0) != 'B' &&
+                    field.charAt(0) != 'W')) {
+                throw new IllegalArgumentException("Malformed position: " +
+                        text);
+            }
+            int player = field.charAt(0) == 'B' ? 1 : 2;
+            if(field.length() == 1) {
+                continue;
+            }
+            for(String cell: field.substring(1).split(",")) {
+                boolean king = cell.startsWith("K");
+                int i = parseNumber(king ? cell.substring(1) : cell, text) - 1;
+                if(i < 0 || i >= board.length || board[i] != null) {
+                    throw new IllegalArgumentException("Invalid cell " +
+                            cell + ": " + text);
+                }
+                board[i] = new Chip(player);
+                board[i].setKing(king);
+            }
+        }
+        return new Checkers(size, board, fields[0].equals("B") ? 1 : 2);
+    }
+
+    /**
+     * Formats a move, following any legs linked through
+     * {@link Move#getNext()}.
+     *
+     * @param move  The move.
+     * @return  Move text.
+     */
+    public static String formatMove(Move move) {
+        StringBuilder text = new StringBuilder();
+        text.append(move.getStart() + 1);
+        for(Move leg=move;leg!=null;leg=leg.getNext()) {
+            text.append(leg.isCapture() ? 'x' : '-').append(leg.getDest() + 1);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Formats moves separated by spaces.
+     *
+     * @param moves The moves.
+     * @return  Moves text.
+     */
+    public static String formatMoves(List<Move> moves) {
+        StringBuilder text = new StringBuilder();
+        for(Move move: moves) {
+            if(text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(formatMove(move));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parses a move and matches it against the valid moves of a board state.
+     * A multi-jump may be given whole or as its first legs only, in which
+     * case the same player moves again afterwards.
+     *
+     * @param checkers  The board state the move is made from.
+     * @param text  Move text.
+     * @return  The valid move, with later legs linked through
+     * {@link Move#getNext()}.
+     * @throws IllegalArgumentException If the text is malformed or not a
+     * valid move.
+     */
+    public static Move parseMove(Checkers checkers, String text) {
+        String[] fields = text.trim().split("[-x]");
+        if(fields.length < 2) {
+            throw new IllegalArgumentException("Malformed move: " + text);
+        }
+        int[] path = new int[fields.length];
+        for(int i=0;i<fields.length;i++) {
+            path[i] = parseNumber(fields[i], text) - 1;
+        }
+
+        TurnList turns = new TurnList();
+        checkers.generateTurns(turns, true);
+        for(int t=0;t<turns.size();t++) {
+            int legs = path.length - 1;
+            if(legs > turns.getLegCount(t)) {
+                continue;
+            }
+            boolean match = true;
+            for(int leg=0;leg<legs && match;leg++) {
+                int packed = turns.getLeg(t, leg);
+                match = IntMove.getStart(packed) == path[leg] &&
+                        IntMove.getDest(packed) == path[leg + 1];
+            }
+            if(match) {
+                Move move = null;
+                for(int leg=legs-1;leg>=0;leg--) {
+                    int packed = turns.getLeg(t, leg);
+                    move = new Move(IntMove.getStart(packed),
+                            IntMove.getDest(packed),
+                            IntMove.getCaptured(packed), move);
+                }
+                return move;
+            }
+        }
+        throw new IllegalArgumentException("Invalid move: " + text);
+    }
+
+    /**
+     * Parses moves separated by spaces, each from the board state left by
+     * the one before. The board state is not changed.
+     *
+     * @param checkers  The board state the first move is made from.
+     * @param text  Moves text.
+     * @return  The valid moves.
+     * @throws IllegalArgumentException If a move is malformed or not valid.
+     */
+    public static List<Move> parseMoves(Checkers checkers, String text) {
+        Checkers board = new Checkers(checkers);
+        List<Move> moves = new ArrayList<>();
+        for(String field: text.trim().split("\\s+")) {
+            if(!field.isEmpty()) {
+                Move move = parseMove(board, field);
+                board.moveChip(move);
+                moves.add(move);
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * @param field Decimal number text.
+     * @param text  The whole text, for the error message.
+     * @return  The number.
+     * @throws IllegalArgumentException If the field is not a number.
+     */
+    private static int parseNumber(String field, String text) {
+        try {
+            return Integer.parseInt(field.trim());
+        } catch(NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed number " + field +
+                    ": " + text, e);
+        }
+    }
+}
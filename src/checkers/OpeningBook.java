@@ -0,0 +1,221 @@
+package checkers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class OpeningBook {
+
+    /**
+     * File identifier, "CKOB".
+     */
+    static final int MAGIC = 0x434B4F42;
+
+    /**
+     * File format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the file header in bytes: magic, version, board size and entry
+     * count, as big endian ints.
+     */
+    static final int HEADER_SIZE = 16;
+
+    /**
+     * Size of an entry in bytes: board state hash as a long, then packed move
+     * and weight as ints.
+     */
+    static final int ENTRY_SIZE = 16;
+
+    /**
+     * The dimensions of the board the book is for.
+     */
+    private final int size;
+
+    /**
+     * Number of entries in the book.
+     */
+    private final int entries;
+
+    /**
+     * The mapped book file.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Book moves for a board size, memory mapped from a file written by
+     * {@link OpeningBookBuilder}. Entries are sorted by board state hash so
+     * that a lookup is a binary search of the mapped file.
+     *
+     * @param size  The dimensions of the board.
+     * @param buffer    The mapped book file.
+     */
+    private OpeningBook(int size, MappedByteBuffer buffer) {
+        this.size = size;
+        this.buffer = buffer;
+        this.entries = buffer.getInt(12);
+    }
+
+    /**
+     * Maps a book file and checks its header.
+     *
+     * @param file  The book file.
+     * @return  The opening book.
+     * @throws IOException  If the file cannot be read or is malformed.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.limit() < HEADER_SIZE ||
+                    buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION ||
+                    (long) buffer.getInt(12) * ENTRY_SIZE !=
+                            buffer.limit() - HEADER_SIZE) {
+                throw new IOException("Malformed opening book file " + file);
+            }
+            return new OpeningBook(buffer.getInt(8), buffer);
+        }
+    }
+
+    /**
+     * @return  The dimensions of the board the book is for.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return  Number of entries in the book.
+     */
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * Picks a book move for a board state at random, in proportion to the
+     * weights of the book moves for it.
+     *
+     * Book moves that are not valid in the board state are ignored, so a
+     * hash collision can never produce an illegal move.
+     *
+     * @param checkers  The board state.
+     * @param moves Valid packed moves from the board state.
+     * @param random    Source of randomness.
+     * @return  Packed move, or {@link IntMove#NONE} if the book has no move
+     * for the board state.
+     */
+    public int getMove(Checkers checkers, IntMoveList moves, Random random) {
+        if(checkers.getSize() != size) {
+            return IntMove.NONE;
+        }
+        long hash = checkers.getHash();
+        int first = find(hash);
+        long total = 0;
+        for(int i=first;i<entries && getHash(i) == hash;i++) {
+            if(moves.contains(getPackedMove(i))) {
+                total += getWeight(i);
+            }
+        }
+        if(total <= 0) {
+            return IntMove.NONE;
+        }
+        long pick = (long) (random.nextDouble() * total);
+        for(int i=first;i<entries && getHash(i) == hash;i++) {
+            if(moves.contains(getPackedMove(i))) {
+                pick -= getWeight(i);
+                if(pick < 0) {
+                    return getPackedMove(i);
+                }
+            }
+        }
+        return IntMove.NONE;
+    }
+
+    /**
+     * Binary search for the first entry with a hash.
+     *
+     * @param hash  Board state hash.
+     * @return  Index of the first entry with a hash not less than the one
+     * specified.
+     */
+    private int find(long hash) {
+        int low = 0;
+        int high = entries;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(getHash(mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param i Entry index.
+     * @return  Board state hash of the entry.
+     */
+    private long getHash(int i) {
+        return buffer.getLong(HEADER_SIZE + i * ENTRY_SIZE);
+    }
+
+    /**
+     * @param i Entry index.
+     * @return  Packed move of the entry.
+     */
+    private int getPackedMove(int i) {
+        return buffer.getInt(HEADER_SIZE + i * ENTRY_SIZE + 8);
+    }
+
+    /**
+     * @param i Entry index.
+     * @return  Weight of the entry.
+     */
+    private int getWeight(int i) {
+        return buffer.getInt(HEADER_SIZE + i * ENTRY_SIZE + 12);
+    }
+
+    /**
+     * @param size  The dimensions of the board.
+     * @return  Name of the book file.
+     */
+    static String getFileName(int size) {
+        return "book-" + size + ".bin";
+    }
+
+    /**
+     * Writes a book file.
+     *
+     * @param file  The file to write.
+     * @param size  The dimensions of the board.
+     * @param hashes    Board state hashes, sorted.
+     * @param moves Packed moves, parallel to the hashes.
+     * @param weights   Weights, parallel to the hashes.
+     * @param count Number of entries.
+     * @throws IOException  If the file cannot be written.
+     */
+    static void write(Path file, int size, long[] hashes, int[] moves,
+                      int[] weights, int count) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(HEADER_SIZE +
+                count * ENTRY_SIZE);
+        data.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(count);
+        for(int i=0;i<count;i++) {
+            data.putLong(hashes[i]).putInt(moves[i]).putInt(weights[i]);
+        }
+        data.flip();
+        try(FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+}
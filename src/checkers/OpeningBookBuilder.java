@@ -0,0 +1,215 @@
+package checkers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class OpeningBookBuilder {
+
+    /**
+     * The dimensions of the board.
+     */
+    private final int size;
+
+    /**
+     * Number of plies from the starting position the book covers.
+     */
+    private final int plies;
+
+    /**
+     * Depth each move is searched to when scoring it.
+     */
+    private final int depth;
+
+    /**
+     * Largest score below the best move for a move to be kept in the book.
+     */
+    private final int margin;
+
+    /**
+     * Engine scoring the moves.
+     */
+    private final Engine engine;
+
+    /**
+     * Hashes of the board states already expanded.
+     */
+    private final Set<Long> visited = new HashSet<>();
+
+    /**
+     * Book entries found so far.
+     */
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Builds an opening book by searching every move of every board state
+     * reachable from the starting position by book moves.
+     *
+     * @param size  The dimensions of the board.
+     * @param plies Number of plies from the starting position to cover.
+     * @param depth Depth each move is searched to.
+     * @param margin    Largest score below the best move for a move to be
+     * kept.
+     * @param engine    Engine scoring the moves.
+     */
+    public OpeningBookBuilder(int size, int plies, int depth, int margin,
+                              Engine engine) {
+        this.size = size;
+        this.plies = plies;
+        this.depth = depth;
+        this.margin = margin;
+        this.engine = engine;
+    }
+
+    /**
+     * Builds the book and writes it to a directory.
+     *
+     * @param directory Directory to write the book file to.
+     * @return  Number of entries written.
+     * @throws IOException  If the file cannot be written.
+     */
+    public int build(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        expand(new Checkers(size), 0);
+        entries.sort(Comparator.comparingLong((Entry e) -> e.hash)
+                .thenComparingInt(e -> e.move));
+
+        int count = entries.size();
+        long[] hashes = new long[count];
+        int[] moves = new int[count];
+        int[] weights = new int[count];
+        for(int i=0;i<count;i++) {
+            hashes[i] = entries.get(i).hash;
+            moves[i] = entries.get(i).move;
+            weights[i] = entries.get(i).weight;
+        }
+        OpeningBook.write(directory.resolve(OpeningBook.getFileName(size)),
+                size, hashes, moves, weights, count);
+        return count;
+    }
+
+    /**
+     * Scores every move of a board state and adds those within the margin of
+     * the best to the book, weighted so that the best move is picked most
+     * often, then expands the board states they lead to.
+     *
+     * @param checkers  The board state.
+     * @param ply   Number of plies from the starting position.
+     */
+    private void expand(Checkers checkers, int ply) {
+        if(ply >= plies || !visited.add(checkers.getHash())) {
+            return;
+        }
+        IntMoveList moves = new IntMoveList();
+        checkers.generateMoves(moves);
+        if(moves.isEmpty()) {
+            return;
+        }
+
+        int player = checkers.getCurrentPlayer();
+        Checkers[] children = new Checkers[moves.size()];
+        int[] scores = new int[moves.size()];
+        int best = Integer.MIN_VALUE;
+        for(int i=0;i<moves.size();i++) {
+            children[i] = new Checkers(checkers);
+            children[i].makeMove(moves.get(i));
+            int score = engine.evaluate(children[i], depth);
+            scores[i] = children[i].getCurrentPlayer() == player ?
+                    score : -score;
+            best = Math.max(best, scores[i]);
+        }
+        for(int i=0;i<moves.size();i++) {
+            if(best - scores[i] <= margin) {
+                entries.add(new Entry(checkers.getHash(), moves.get(i),
+                        margin + 1 - (best - scores[i])));
+                expand(children[i], ply + 1);
+            }
+        }
+    }
+
+    /**
+     * Builds opening books.
+     *
+     * Usage: OpeningBookBuilder [--out dir] [--plies n] [--depth n]
+     * [--margin n] [--threads n] [size...]
+     *
+     * Sizes default to 8, 10 and 16, plies to 8, depth to 6 and margin to 1.
+     *
+     * @param args  Command line arguments.
+     * @throws IOException  If a file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get("books");
+        int plies = 8;
+        int depth = 6;
+        int margin = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Integer> sizes = new ArrayList<>();
+        for(int i=0;i<args.length;i++) {
+            switch(args[i]) {
+                case "--out": out = Paths.get(args[++i]); break;
+                case "--plies": plies = Integer.parseInt(args[++i]); break;
+                case "--depth": depth = Integer.parseInt(args[++i]); break;
+                case "--margin": margin = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                default: sizes.add(Integer.parseInt(args[i]));
+            }
+        }
+        if(sizes.isEmpty()) {
+            sizes.addAll(Arrays.asList(8, 10, 16));
+        }
+
+        Engine engine = new Engine(threads);
+        try {
+            for(int size: sizes) {
+                long start = System.nanoTime();
+                int count = new OpeningBookBuilder(size, plies, depth, margin,
+                        engine).build(out);
+                System.out.printf("%s: %d entries in %.1f s%n",
+                        OpeningBook.getFileName(size), count,
+                        (System.nanoTime() - start) / 1e9);
+            }
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * A book move for a board state.
+     */
+    private static final class Entry {
+
+        /**
+         * Board state hash.
+         */
+        private final long hash;
+
+        /**
+         * Packed move.
+         */
+        private final int move;
+
+        /**
+         * Relative likelihood of the move being picked.
+         */
+        private final int weight;
+
+        /**
+         * @param hash  Board state hash.
+         * @param move  Packed move.
+         * @param weight    Relative likelihood of the move being picked.
+         */
+        Entry(long hash, int move, int weight) {
+            this.hash = hash;
+            this.move = move;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package checkers;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+final class Ponder {
+
+    /**
+     * Hash of the board state being searched.
+     */
+    private final long hash;
+
+    /**
+     * The max depth the board state is searched to.
+     */
+    private final int maxDepth;
+
+    /**
+     * Token stopping the search.
+     */
+    private final CancellationToken token;
+
+    /**
+     * Completes with the result of the search.
+     */
+    private final CompletableFuture<SearchResult> result;
+
+    /**
+     * A search running in the background from the board state expected
+     * after the opponent's predicted move.
+     *
+     * @param hash  Hash of the board state being searched.
+     * @param maxDepth  The max depth the board state is searched to.
+     * @param token Token stopping the search.
+     * @param result    Completes with the result of the search.
+     */
+    Ponder(long hash, int maxDepth, CancellationToken token,
+           CompletableFuture<SearchResult> result) {
+        this.hash = hash;
+        this.maxDepth = maxDepth;
+        this.token = token;
+        this.result = result;
+    }
+
+    /**
+     * Checks whether a search request can be answered by this search.
+     *
+     * @param position  The board state to search from.
+     * @param maxDepth  The max depth requested.
+     * @param budget    Time allowed for the search, or null for no limit.
+     * @return  True if this search is from the same board state and either
+     * to the same depth or for a time budget.
+     */
+    boolean isHit(Checkers position, int maxDepth, Duration budget) {
+        return position.getHash() == hash &&
+                (budget != null || maxDepth == this.maxDepth);
+    }
+
+    /**
+     * Lets the search run on until it completes or the budget runs out,
+     * then returns its result.
+     *
+     * @param budget    Time allowed from now, or null to wait for the search
+     * to complete.
+     * @param cancel    Token of the search collecting this one, stopping
+     * this one early if cancelled, or null for none.
+     * @return  The best turn found, with the statistics of the search since
+     * it started in the background.
+     */
+    SearchResult finish(Duration budget, CancellationToken cancel) {
+        if(cancel != null) {
+            cancel.onCancel(token::cancel);
+        }
+        if(budget != null) {
+            try {
+                result.get(budget.toNanos(), TimeUnit.NANOSECONDS);
+            } catch(TimeoutException e) {
+                token.cancel();
+            } catch(InterruptedException e) {
+                token.cancel();
+                Thread.currentThread().interrupt();
+            } catch(ExecutionException e) {
+                // Rethrown by join below.
+            }
+        }
+        return result.join();
+    }
+
+    /**
+     * Stops the search and waits for its threads to finish.
+     */
+    void cancel() {
+        token.cancel();
+        result.join();
+    }
+}
@@ -0,0 +1,190 @@
+package checkers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class SearchContext {
+
+    /**
+     * The max depth for minimax.
+     */
+    private final int maxDepth;
+
+    /**
+     * System.nanoTime value at which the search started.
+     */
+    private final long startTime;
+
+    /**
+     * System.nanoTime value at which to give up, or 0 for no deadline.
+     */
+    private final long deadline;
+
+    /**
+     * Flag raised when the search as a whole should stop.
+     */
+    private final AtomicBoolean stop;
+
+    /**
+     * Token cancelling the search from outside the engine, or null for
+     * none.
+     */
+    private final CancellationToken token;
+
+    /**
+     * Receives progress of the search, or null for none.
+     */
+    private final SearchListener listener;
+
+    /**
+     * Nodes visited by all search threads, added in batches.
+     */
+    private final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * Beta cutoffs of all search threads, added as each thread finishes.
+     */
+    private final AtomicLong cutoffs = new AtomicLong();
+
+    /**
+     * Beta cutoffs caused by the first move searched, added as each thread
+     * finishes.
+     */
+    private final AtomicLong firstMoveCutoffs = new AtomicLong();
+
+    /**
+     * Transposition table lookups, added as each thread finishes.
+     */
+    private final AtomicLong tableProbes = new AtomicLong();
+
+    /**
+     * Transposition table lookups that found the board state, added as each
+     * thread finishes.
+     */
+    private final AtomicLong tableHits = new AtomicLong();
+
+    /**
+     * Time the search threads spent searching in nanoseconds, added as each
+     * thread finishes.
+     */
+    private final AtomicLong busyNanos = new AtomicLong();
+
+    /**
+     * State shared by the search threads of one search.
+     *
+     * @param maxDepth  The max depth for minimax.
+     * @param deadline  System.nanoTime value at which to give up, or 0.
+     * @param stop  Flag raised when the search as a whole should stop.
+     * @param token Token cancelling the search, or null for none.
+     * @param listener  Receives progress of the search, or null for none.
+     */
+    SearchContext(int maxDepth, long deadline, AtomicBoolean stop,
+                  CancellationToken token, SearchListener listener) {
+        this.maxDepth = maxDepth;
+        this.startTime = System.nanoTime();
+        this.deadline = deadline;
+        this.stop = stop;
+        this.token = token;
+        this.listener = listener;
+    }
+
+    /**
+     * @return  The max depth for minimax.
+     */
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return  System.nanoTime value at which the search started.
+     */
+    long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return  Flag raised when the search as a whole should stop.
+     */
+    AtomicBoolean getStop() {
+        return stop;
+    }
+
+    /**
+     * @return  Receives progress of the search, or null for none.
+     */
+    SearchListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @return  True if the search has been stopped or cancelled.
+     */
+    boolean isCancelled() {
+        return stop.get() || (token != null && token.isCancelled());
+    }
+
+    /**
+     * @return  True if the search has been stopped or cancelled or its
+     * deadline has passed.
+     */
+    boolean isStopped() {
+        return isCancelled() ||
+                (deadline != 0 && System.nanoTime() - deadline >= 0);
+    }
+
+    /**
+     * Adds to the nodes visited by all search threads.
+     *
+     * @param count Number of nodes.
+     */
+    void addNodes(long count) {
+        nodes.addAndGet(count);
+    }
+
+    /**
+     * @return  Nodes visited by all search threads so far.
+     */
+    long getNodes() {
+        return nodes.get();
+    }
+
+    /**
+     * Adds the counters of a search thread that has finished.
+     *
+     * @param cutoffs   Beta cutoffs.
+     * @param firstMoveCutoffs  Beta cutoffs caused by the first move.
+     * @param tableProbes   Transposition table lookups.
+     * @param tableHits Transposition table lookups that found the board
+     * state.
+     * @param busyNanos Time the thread spent searching in nanoseconds.
+     */
+    void addStatistics(long cutoffs, long firstMoveCutoffs, long tableProbes,
+                       long tableHits, long busyNanos) {
+        this.cutoffs.addAndGet(cutoffs);
+        this.firstMoveCutoffs.addAndGet(firstMoveCutoffs);
+        this.tableProbes.addAndGet(tableProbes);
+        this.tableHits.addAndGet(tableHits);
+        this.busyNanos.addAndGet(busyNanos);
+    }
+
+    /**
+     * Collects the result of the search once every search thread has
+     * finished.
+     *
+     * @param move  The best move, or null if there is none.
+     * @param source    How the move was found.
+     * @param score Score of the best move.
+     * @param depth Depth of the deepest completed iteration, -1 if none.
+     * @param threads   Number of search threads.
+     * @param branchingFactor   Effective branching factor of the main
+     * search thread, 0 if unknown.
+     * @return  The search result.
+     */
+    SearchResult toResult(Move move, SearchResult.Source source, int score,
+                          int depth, int threads, double branchingFactor) {
+        return new SearchResult(move, source, score, depth, nodes.get(),
+                System.nanoTime() - startTime, threads, busyNanos.get(),
+                cutoffs.get(), firstMoveCutoffs.get(), tableProbes.get(),
+                tableHits.get(), branchingFactor);
+    }
+}
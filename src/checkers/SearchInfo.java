@@ -0,0 +1,105 @@
+package checkers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+public class SearchInfo {
+
+    /**
+     * Depth of the completed iteration.
+     */
+    private final int depth;
+
+    /**
+     * Score of the best move from the perspective of the player to move.
+     */
+    private final int score;
+
+    /**
+     * Nodes visited by all search threads so far.
+     */
+    private final long nodes;
+
+    /**
+     * Time since the search started in nanoseconds.
+     */
+    private final long nanos;
+
+    /**
+     * Expected line of play, starting with the best move.
+     */
+    private final List<Move> principalVariation;
+
+    /**
+     * Progress of a search after an iteration of iterative deepening.
+     *
+     * @param depth Depth of the completed iteration.
+     * @param score Score of the best move from the perspective of the
+     * player to move.
+     * @param nodes Nodes visited by all search threads so far.
+     * @param nanos Time since the search started in nanoseconds.
+     * @param principalVariation    Expected line of play, starting with the
+     * best move.
+     */
+    public SearchInfo(int depth, int score, long nodes, long nanos,
+                      List<Move> principalVariation) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.nanos = nanos;
+        this.principalVariation = Collections.unmodifiableList(
+                principalVariation);
+    }
+
+    /**
+     * @return  Depth of the completed iteration.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return  Score of the best move from the perspective of the player to
+     * move.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return  Nodes visited by all search threads so far.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return  Time since the search started.
+     */
+    public Duration getTime() {
+        return Duration.ofNanos(nanos);
+    }
+
+    /**
+     * @return  Nodes visited per second since the search started.
+     */
+    public long getNodesPerSecond() {
+        return nanos > 0 ? (long) (nodes * 1e9 / nanos) : 0;
+    }
+
+    /**
+     * @return  Best move of the completed iteration.
+     */
+    public Move getBestMove() {
+        return principalVariation.get(0);
+    }
+
+    /**
+     * @return  Expected line of play, starting with the best move. Later
+     * moves are read from the transposition table and may be cut short.
+     */
+    public List<Move> getPrincipalVariation() {
+        return principalVariation;
+    }
+}
@@ -0,0 +1,12 @@
+package checkers;
+
+public interface SearchListener {
+
+    /**
+     * Called by the main search thread each time an iteration of iterative
+     * deepening completes. Must return quickly, the search waits for it.
+     *
+     * @param info  Progress of the search.
+     */
+    void onIteration(SearchInfo info);
+}
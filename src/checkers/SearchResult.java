@@ -0,0 +1,303 @@
+package checkers;
+
+import java.time.Duration;
+
+public class SearchResult {
+
+    /**
+     * How the move of a search was found.
+     */
+    public enum Source {
+
+        /**
+         * Searched by the search threads.
+         */
+        SEARCH,
+
+        /**
+         * Searched in the background while the opponent was thinking.
+         */
+        PONDER,
+
+        /**
+         * Picked from the opening book without searching.
+         */
+        BOOK,
+
+        /**
+         * Picked from the endgame tablebase without searching.
+         */
+        TABLEBASE,
+
+        /**
+         * The only valid move, not searched.
+         */
+        FORCED
+    }
+
+    /**
+     * The best move, or null if the player to move has no valid moves.
+     */
+    private final Move move;
+
+    /**
+     * How the move was found.
+     */
+    private final Source source;
+
+    /**
+     * Score of the best move from the perspective of the player to move.
+     */
+    private final int score;
+
+    /**
+     * Depth of the deepest completed iteration, -1 if none completed.
+     */
+    private final int depth;
+
+    /**
+     * Nodes visited by all search threads.
+     */
+    private final long nodes;
+
+    /**
+     * Time the search took in nanoseconds.
+     */
+    private final long nanos;
+
+    /**
+     * Number of search threads.
+     */
+    private final int threads;
+
+    /**
+     * Time the search threads spent searching in nanoseconds, summed over
+     * the threads.
+     */
+    private final long busyNanos;
+
+    /**
+     * Nodes at which a move caused a beta cutoff.
+     */
+    private final long cutoffs;
+
+    /**
+     * Nodes at which the first move searched caused a beta cutoff.
+     */
+    private final long firstMoveCutoffs;
+
+    /**
+     * Transposition table lookups.
+     */
+    private final long tableProbes;
+
+    /**
+     * Transposition table lookups that found the board state.
+     */
+    private final long tableHits;
+
+    /**
+     * Effective branching factor of the main search thread, 0 if unknown.
+     */
+    private final double branchingFactor;
+
+    /**
+     * Outcome and statistics of one search, aggregated from the counters of
+     * every search thread once they have finished. Moves found without
+     * searching report no nodes and a depth of -1.
+     *
+     * @param move  The best move, or null if there is none.
+     * @param source    How the move was found.
+     * @param score Score of the best move from the perspective of the player
+     * to move.
+     * @param depth Depth of the deepest completed iteration, -1 if none.
+     * @param nodes Nodes visited by all search threads.
+     * @param nanos Time the search took in nanoseconds.
+     * @param threads   Number of search threads.
+     * @param busyNanos Time the search threads spent searching in
+     * nanoseconds, summed over the threads.
+     * @param cutoffs   Nodes at which a move caused a beta cutoff.
+     * @param firstMoveCutoffs  Nodes at which the first move searched caused
+     * a beta cutoff.
+     * @param tableProbes   Transposition table lookups.
+     * @param tableHits Transposition table lookups that found the board
+     * state.
+     * @param branchingFactor   Effective branching factor of the main
+     * search thread, 0 if unknown.
+     */
+    public SearchResult(Move move, Source source, int score, int depth,
+                        long nodes, long nanos, int threads, long busyNanos,
+                        long cutoffs, long firstMoveCutoffs, long tableProbes,
+                        long tableHits, double branchingFactor) {
+        this.move = move;
+        this.source = source;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+        this.threads = threads;
+        this.busyNanos = busyNanos;
+        this.cutoffs = cutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+        this.branchingFactor = branchingFactor;
+    }
+
+    /**
+     * Result of a move found without searching.
+     *
+     * @param move  The move, or null if there is none.
+     * @param source    How the move was found.
+     * @param nanos Time taken to find the move in nanoseconds.
+     */
+    SearchResult(Move move, Source source, long nanos) {
+        this(move, source, 0, -1, 0, nanos, 0, 0, 0, 0, 0, 0, 0.0);
+    }
+
+    /**
+     * @return  The best move, or null if the player to move has no valid
+     * moves.
+     */
+    public Move getMove() {
+        return move;
+    }
+
+    /**
+     * @return  How the move was found.
+     */
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * @return  Score of the best move from the perspective of the player to
+     * move, 0 if the move was not searched.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return  Depth of the deepest completed iteration, -1 if none
+     * completed or the move was not searched.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return  Nodes visited by all search threads.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return  Time the search took.
+     */
+    public Duration getTime() {
+        return Duration.ofNanos(nanos);
+    }
+
+    /**
+     * @return  Nodes visited per second.
+     */
+    public long getNodesPerSecond() {
+        return nanos > 0 ? (long) (nodes * 1e9 / nanos) : 0;
+    }
+
+    /**
+     * @return  Number of search threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return  Time the search threads spent searching, summed over the
+     * threads.
+     */
+    public Duration getBusyTime() {
+        return Duration.ofNanos(busyNanos);
+    }
+
+    /**
+     * @return  Share of the search threads' time spent searching, from 0 to
+     * 1. Lower values mean threads waited to be scheduled or finished early.
+     */
+    public double getThreadUtilisation() {
+        return threads > 0 && nanos > 0 ?
+                Math.min(1.0, (double) busyNanos / threads / nanos) : 0.0;
+    }
+
+    /**
+     * @return  Nodes at which a move caused a beta cutoff.
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * @return  Nodes at which the first move searched caused a beta cutoff.
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * @return  Share of beta cutoffs caused by the first move searched, from
+     * 0 to 1. Values close to 1 mean moves are well ordered.
+     */
+    public double getFirstMoveCutoffRate() {
+        return cutoffs > 0 ? (double) firstMoveCutoffs / cutoffs : 0.0;
+    }
+
+    /**
+     * @return  Effective branching factor, the nodes the main search thread
+     * visited in its deepest completed iteration divided by those of the
+     * iteration before, or 0 if it did not complete two iterations. Helper
+     * threads are left out so that the value does not grow with the number
+     * of threads.
+     */
+    public double getBranchingFactor() {
+        return branchingFactor;
+    }
+
+    /**
+     * @return  Transposition table lookups.
+     */
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    /**
+     * @return  Transposition table lookups that found the board state.
+     */
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * @return  Share of transposition table lookups that found the board
+     * state, from 0 to 1.
+     */
+    public double getTableHitRate() {
+        return tableProbes > 0 ? (double) tableHits / tableProbes : 0.0;
+    }
+
+    /**
+     * @return  Summary of the result on one line.
+     */
+    @Override
+    public String toString() {
+        return String.format("%s %s score %d depth %d nodes %d time %.1f ms " +
+                        "nps %d ebf %.2f cutoffs %d first %.1f%% hits %.1f%% " +
+                        "threads %d util %.1f%%",
+                move != null ? Notation.formatMove(move) : "none", source,
+                score, depth, nodes, nanos / 1e6, getNodesPerSecond(),
+                getBranchingFactor(), cutoffs, getFirstMoveCutoffRate() * 100,
+                getTableHitRate() * 100, threads,
+                getThreadUtilisation() * 100);
+    }
+}
@@ -0,0 +1,898 @@
+package checkers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class SearchWorker implements Runnable {
+
+    /**
+     * Number of nodes visited between checks of the deadline.
+     */
+    private static final int STOP_CHECK_INTERVAL = 1024;
+
+    /**
+     * Ordering score for the transposition table's best move.
+     */
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+
+    /**
+     * Ordering score for the first killer move, the second scores one less.
+     */
+    private static final int KILLER_MOVE_SCORE = (1 << 30) - 2;
+
+    /**
+     * Score of a board state won according to the tablebase, less the
+     * number of moves to the win.
+     */
+    private static final int TABLEBASE_WIN = 1 << 20;
+
+    /**
+     * The worker's own copy of the board, searched in place.
+     */
+    private final Checkers board;
+
+    /**
+     * Transposition table shared with the other workers.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Endgame tablebase, or null for none.
+     */
+    private final Tablebase tablebase;
+
+    /**
+     * Valid turns from the root board state, shared with the other workers.
+     */
+    private final TurnList rootTurns;
+
+    /**
+     * Indexes of the root turns in the order they will next be searched.
+     */
+    private final int[] rootMoves;
+
+    /**
+     * Worker number, 0 for the main worker.
+     */
+    private final int id;
+
+    /**
+     * State shared with the other workers of the search.
+     */
+    private final SearchContext search;
+
+    /**
+     * Search the transposition table's best move first.
+     */
+    private final boolean hashMoveOrdering;
+
+    /**
+     * Search killer moves after the hash move.
+     */
+    private final boolean killerMoves;
+
+    /**
+     * Order remaining moves by the history heuristic.
+     */
+    private final boolean historyHeuristic;
+
+    /**
+     * Extend the search past the max depth with capture sequences.
+     */
+    private final boolean quiescence;
+
+    /**
+     * Search each multi-jump as a single turn.
+     */
+    private final boolean compositeMoves;
+
+    /**
+     * Two packed killer moves per ply, the most recent first.
+     */
+    private int[][] killers = new int[Engine.MAX_DEPTH + 2][2];
+
+    /**
+     * Cutoff counts weighted by depth, indexed by start cell * cells + dest.
+     */
+    private final int[] history;
+
+    /**
+     * Turn lists per ply, reused for every node at that ply.
+     */
+    private TurnList[] turnLists = new TurnList[Engine.MAX_DEPTH + 2];
+
+    /**
+     * Move ordering scores per ply, parallel to the turn lists.
+     */
+    private int[][] orderScores = new int[Engine.MAX_DEPTH + 2][];
+
+    /**
+     * Nodes visited by this worker.
+     */
+    private long nodes;
+
+    /**
+     * Nodes at which a move caused a beta cutoff.
+     */
+    private long cutoffs;
+
+    /**
+     * Nodes at which the first move searched caused a beta cutoff.
+     */
+    private long firstMoveCutoffs;
+
+    /**
+     * Transposition table lookups.
+     */
+    private long tableProbes;
+
+    /**
+     * Transposition table lookups that found the board state.
+     */
+    private long tableHits;
+
+    /**
+     * Turn lists generated by this worker.
+     */
+    private long moveGenerations;
+
+    /**
+     * Turns generated by this worker.
+     */
+    private long generatedTurns;
+
+    /**
+     * Board states evaluated by the heuristic.
+     */
+    private long evaluations;
+
+    /**
+     * Nodes visited when the current iteration started.
+     */
+    private long iterationNodes;
+
+    /**
+     * Turn lists generated when the current iteration started.
+     */
+    private long iterationGenerations;
+
+    /**
+     * Turns generated when the current iteration started.
+     */
+    private long iterationTurns;
+
+    /**
+     * Board states evaluated when the current iteration started.
+     */
+    private long iterationEvaluations;
+
+    /**
+     * Depth of the current iteration.
+     */
+    private int iterationDepth;
+
+    /**
+     * Batch of move generations being timed, or null if move generation
+     * events are not being recorded.
+     */
+    private EngineEvents.MoveGenerationEvent generationBatch;
+
+    /**
+     * Batch of evaluations being timed, or null if evaluation events are
+     * not being recorded.
+     */
+    private EngineEvents.EvaluationEvent evaluationBatch;
+
+    /**
+     * Nodes visited by the deepest completed iteration.
+     */
+    private long completedNodes;
+
+    /**
+     * Nodes visited by the completed iteration before the deepest.
+     */
+    private long previousCompletedNodes;
+
+    /**
+     * Index of the best root turn from the deepest completed iteration, -1
+     * if none has completed.
+     */
+    private int bestTurn = -1;
+
+    /**
+     * Score of the best root move from the deepest completed iteration, from
+     * the perspective of the player to move at the root.
+     */
+    private int bestScore;
+
+    /**
+     * Depth of the deepest completed iteration, -1 if none has completed.
+     */
+    private int completedDepth = -1;
+
+    /**
+     * One thread's share of a Lazy SMP search.
+     *
+     * @param engine    The engine the search is for.
+     * @param board The worker's own copy of the board.
+     * @param turns Valid turns from the board state, not modified.
+     * @param id    Worker number, 0 for the main worker.
+     * @param search    State shared with the other workers of the search.
+     */
+    SearchWorker(Engine engine, Checkers board, TurnList turns, int id,
+                 SearchContext search) {
+        this.board = board;
+        this.table = engine.getTranspositionTable();
+        this.tablebase = engine.getTablebase(board.getSize());
+        this.hashMoveOrdering = engine.isHashMoveOrdering();
+        this.killerMoves = engine.isKillerMoves();
+        this.historyHeuristic = engine.isHistoryHeuristic();
+        this.quiescence = engine.isQuiescence();
+        this.compositeMoves = engine.isCompositeMoves();
+        this.history = historyHeuristic ?
+                new int[board.getCellCount() * board.getCellCount()] : null;
+        this.id = id;
+        this.search = search;
+
+        rootTurns = turns;
+        rootMoves = new int[turns.size()];
+        for(int i=0;i<rootMoves.length;i++) {
+            rootMoves[i] = (i + id) % rootMoves.length;
+        }
+    }
+
+    /**
+     * @return  Index of the best root turn from the deepest completed
+     * iteration, -1 if none has completed.
+     */
+    int getBestTurn() {
+        return bestTurn;
+    }
+
+    /**
+     * @return  Score of the best root move from the deepest completed
+     * iteration, from the perspective of the player to move at the root.
+     */
+    int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * @return  Depth of the deepest completed iteration, -1 if none.
+     */
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return  Nodes visited by this worker.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return  Nodes of the deepest completed iteration divided by those of
+     * the iteration before, or 0 if fewer than two have completed.
+     */
+    double getBranchingFactor() {
+        return previousCompletedNodes > 0 ?
+                (double) completedNodes / previousCompletedNodes : 0.0;
+    }
+
+    /**
+     * Runs iterative deepening until the max depth is reached or the search
+     * is stopped. Helper workers with odd numbers begin one iteration deeper
+     * so that the workers spread over neighbouring depths. The main worker
+     * reports each completed iteration to the search listener, if any.
+     *
+     * The worker's counters are kept in plain fields while it searches and
+     * added to the search's totals once it finishes. Each iteration is
+     * recorded as a flight recorder event, whether it completes or not,
+     * along with batches of the move generations and evaluations made in
+     * it.
+     */
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        int depth = id%2;
+        EngineEvents.IterationEvent iteration = null;
+        try {
+            for(;depth<=search.getMaxDepth();depth++) {
+                iteration = beginIteration(depth);
+                searchRoot(depth);
+                completedDepth = depth;
+                previousCompletedNodes = completedNodes;
+                completedNodes = nodes - iterationNodes;
+                endIteration(iteration, depth, true);
+                iteration = null;
+                if(id == 0 && search.getListener() != null) {
+                    search.getListener().onIteration(new SearchInfo(depth,
+                            bestScore, search.getNodes() +
+                            nodes % STOP_CHECK_INTERVAL,
+                            System.nanoTime() - search.getStartTime(),
+                            getPrincipalVariation(depth)));
+                }
+            }
+        } catch(SearchTimeout e) {
+            // Keep the result of the deepest completed iteration.
+        } finally {
+            if(iteration != null) {
+                endIteration(iteration, depth, false);
+            }
+            search.addNodes(nodes % STOP_CHECK_INTERVAL);
+            search.addStatistics(cutoffs, firstMoveCutoffs, tableProbes,
+                    tableHits, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Starts timing an iteration and notes the worker's counters. Move
+     * generation and evaluation batches are only timed if their events are
+     * enabled when the iteration starts, so that they cost a null check per
+     * call when JFR is not recording.
+     *
+     * @param depth Depth of the iteration.
+     * @return  The iteration's flight recorder event.
+     */
+    private EngineEvents.IterationEvent beginIteration(int depth) {
+        EngineEvents.IterationEvent event = new EngineEvents.IterationEvent();
+        event.begin();
+        iterationDepth = depth;
+        generationBatch = beginGenerations();
+        evaluationBatch = beginEvaluations();
+        iterationNodes = nodes;
+        iterationGenerations = moveGenerations;
+        iterationTurns = generatedTurns;
+        iterationEvaluations = evaluations;
+        return event;
+    }
+
+    /**
+     * Records an iteration's flight recorder event if it is enabled.
+     *
+     * Also records the iteration's last move generation and evaluation
+     * batches.
+     *
+     * @param event The event returned by {@link #beginIteration(int)}.
+     * @param depth Depth of the iteration.
+     * @param completed True if the iteration completed.
+     */
+    private void endIteration(EngineEvents.IterationEvent event, int depth,
+                              boolean completed) {
+        if(generationBatch != null) {
+            commitGenerations();
+            generationBatch = null;
+        }
+        if(evaluationBatch != null) {
+            commitEvaluations();
+            evaluationBatch = null;
+        }
+        if(!event.shouldCommit()) {
+            return;
+        }
+        event.size = board.getSize();
+        event.worker = id;
+        event.depth = depth;
+        event.nodes = nodes - iterationNodes;
+        event.moveGenerations = moveGenerations - iterationGenerations;
+        event.turns = generatedTurns - iterationTurns;
+        event.evaluations = evaluations - iterationEvaluations;
+        event.completed = completed;
+        if(completed) {
+            event.move = Notation.formatMove(rootTurns.toMove(bestTurn));
+            event.score = bestScore;
+        }
+        event.commit();
+    }
+
+    /**
+     * Follows the transposition table's best moves from the best root turn.
+     *
+     * @param depth Depth of the completed iteration, limiting the length.
+     * @return  Expected line of play, starting with the best root turn.
+     */
+    private List<Move> getPrincipalVariation(int depth) {
+        List<Move> line = new ArrayList<>();
+        line.add(rootTurns.toMove(bestTurn));
+        Checkers position = new Checkers(board);
+        rootTurns.make(position, bestTurn);
+        TurnList turns = new TurnList();
+        while(line.size() <= depth) {
+            long entry = table.probe(position.getHash());
+            if(entry == 0) {
+                break;
+            }
+            int move = TranspositionTable.getMove(entry);
+            position.generateTurns(turns, compositeMoves);
+            int found = -1;
+            for(int i=0;i<turns.size() && found < 0;i++) {
+                if(turns.getFirst(i) == move) {
+                    found = i;
+                }
+            }
+            if(found < 0) {
+                break;
+            }
+            line.add(turns.toMove(found));
+            turns.make(position, found);
+        }
+        return line;
+    }
+
+    /**
+     * Searches each root move to the specified depth and moves the best one
+     * to the front of the root moves for the next iteration.
+     *
+     * @param depth The depth to search each root move to.
+     */
+    private void searchRoot(int depth) {
+        int player = board.getCurrentPlayer();
+        int alpha = Integer.MIN_VALUE;
+        int best = 0;
+        int bestScore = Integer.MIN_VALUE;
+        for(int i=0;i<rootMoves.length;i++) {
+            int turn = rootMoves[i];
+            EngineEvents.RootMoveEvent event =
+                    new EngineEvents.RootMoveEvent();
+            event.begin();
+            long before = nodes;
+            rootTurns.make(board, turn);
+            int score = minimax(depth, 1, player, alpha,
+                    Integer.MAX_VALUE);
+            rootTurns.unmake(board, turn);
+            if(event.shouldCommit()) {
+                event.size = board.getSize();
+                event.worker = id;
+                event.depth = depth;
+                event.move = Notation.formatMove(rootTurns.toMove(turn));
+                event.nodes = nodes - before;
+                event.score = score;
+                event.commit();
+            }
+            if(score > bestScore) {
+                bestScore = score;
+                best = i;
+            }
+            alpha = Math.max(alpha, score);
+        }
+        bestTurn = rootMoves[best];
+        this.bestScore = bestScore;
+        System.arraycopy(rootMoves, 0, rootMoves, 1, best);
+        rootMoves[0] = bestTurn;
+    }
+
+    /**
+     * The minimax implementation.
+     *
+     * Moves are made and taken back in place on the worker's board and
+     * generated into a list reserved for each ply, so the search does not
+     * allocate for each node. With composite moves enabled on the engine a
+     * whole multi-jump is one turn and takes one ply, otherwise every leg
+     * takes a ply of its own.
+     *
+     * The transposition table is consulted before a node is expanded and
+     * updated with its result afterwards. Scores are stored from the
+     * perspective of the current player at that node so that entries stay
+     * valid whichever player the search is maximising for.
+     *
+     * Board states covered by the tablebase are scored from it without
+     * searching further.
+     *
+     * At the max depth, a quiescence search runs on through any capture
+     * sequence before the board state is evaluated, if enabled on the
+     * engine.
+     *
+     * Moves are searched hash move first, then killer moves, then by
+     * history score, each as enabled on the engine.
+     *
+     * @param d Depth to which search tree is explored.
+     * @param ply   Distance of this node from the root.
+     * @param p The maximising player identifier.
+     * @param a Alpha.
+     * @param b Beta.
+     * @return  Evaluation result for the board state.
+     */
+    private int minimax(int d, int ply, int p, int a, int b) {
+        countNode();
+
+        int sign = board.getCurrentPlayer() == p ? 1 : -1;
+        if(tablebase != null) {
+            int value = tablebase.probe(board);
+            if(value != Tablebase.NONE) {
+                return getTablebaseScore(value, ply) * sign;
+            }
+        }
+
+        long hash = board.getHash();
+        long entry = 0;
+        if(d > 0) {
+            entry = table.probe(hash);
+            tableProbes++;
+            if(entry != 0) {
+                tableHits++;
+            }
+            if(entry != 0 && TranspositionTable.getDepth(entry) >= d) {
+                int score = TranspositionTable.getScore(entry) * sign;
+                int bound = TranspositionTable.getBound(entry);
+                if(bound == TranspositionTable.EXACT) {
+                    return score;
+                }
+                if(bound == (sign > 0 ? TranspositionTable.LOWER :
+                        TranspositionTable.UPPER)) {
+                    a = Math.max(a, score);
+                } else {
+                    b = Math.min(b, score);
+                }
+                if(a >= b) {
+                    return score;
+                }
+            }
+        }
+
+        if(d == 0) {
+            return quiescence ? quiesce(ply, p, a, b) : evaluate(p);
+        }
+        TurnList moves = generateTurns(ply);
+        if(moves.isEmpty()) {
+            return evaluate(p);
+        }
+
+        int best = board.getCurrentPlayer() == p ? Integer.MIN_VALUE :
+                Integer.MAX_VALUE;
+        int alpha = a;
+        int beta = b;
+        int bestMove = IntMove.NONE;
+        int count = moves.size();
+        boolean ordered = orderMoves(moves, ply, entry);
+        int[] scores = orderScores[ply];
+        for(int n=0;n<count;n++) {
+            if(ordered) {
+                int pick = n;
+                for(int j=n+1;j<count;j++) {
+                    if(scores[j] > scores[pick]) {
+                        pick = j;
+                    }
+                }
+                int score = scores[pick];
+                scores[pick] = scores[n];
+                scores[n] = score;
+                moves.swap(n, pick);
+            }
+            int move = moves.getFirst(n);
+            moves.make(board, n);
+            int current = minimax(d-1, ply+1, p, a, b);
+            moves.unmake(board, n);
+            if(board.getCurrentPlayer() == p) {
+                if(current > best) {
+                    best = current;
+                    bestMove = move;
+                }
+                a = Math.max(a, current);
+            } else {
+                if(current < best) {
+                    best = current;
+                    bestMove = move;
+                }
+                b = Math.min(b, current);
+            }
+
+            if(a >= b) {
+                cutoffs++;
+                if(n == 0) {
+                    firstMoveCutoffs++;
+                }
+                recordCutoff(move, d, ply);
+                break;
+            }
+        }
+
+        int bound = TranspositionTable.EXACT;
+        if(best <= alpha) {
+            bound = TranspositionTable.UPPER;
+        } else if(best >= beta) {
+            bound = TranspositionTable.LOWER;
+        }
+        if(sign < 0) {
+            bound = bound == TranspositionTable.LOWER ?
+                    TranspositionTable.UPPER :
+                    bound == TranspositionTable.UPPER ?
+                            TranspositionTable.LOWER : bound;
+        }
+        table.store(hash, d, bound, best * sign, bestMove);
+
+        return best;
+    }
+
+    /**
+     * Quiescence search, run in place of the heuristic at the horizon.
+     *
+     * Captures are compulsory, so while the player to move has a capture,
+     * including the next leg of a multi-leg move, the board state is not
+     * evaluated and every capture is searched instead. Once the player to
+     * move has no capture the board state is quiet and the heuristic is
+     * returned. Capture sequences end because every capture removes a chip.
+     *
+     * @param ply   Distance of this node from the root.
+     * @param p The maximising player identifier.
+     * @param a Alpha.
+     * @param b Beta.
+     * @return  Evaluation result for the board state.
+     */
+    private int quiesce(int ply, int p, int a, int b) {
+        TurnList moves = generateTurns(ply);
+        if(!moves.isCapturing()) {
+            return evaluate(p);
+        }
+
+        boolean maximising = board.getCurrentPlayer() == p;
+        int best = maximising ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int count = moves.size();
+        for(int n=0;n<count;n++) {
+            moves.make(board, n);
+            countNode();
+            int current = quiesce(ply+1, p, a, b);
+            moves.unmake(board, n);
+            if(maximising) {
+                best = Math.max(best, current);
+                a = Math.max(a, current);
+            } else {
+                best = Math.min(best, current);
+                b = Math.min(b, current);
+            }
+            if(a >= b) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts a node, adding to the search's node count in batches. Checks
+     * whether the search has been stopped or cancelled at every node, as
+     * that is only a read of two flags, and whether its deadline has passed
+     * periodically.
+     *
+     * @throws SearchTimeout    If the search should stop.
+     */
+    private void countNode() {
+        if(search.isCancelled()) {
+            throw SearchTimeout.INSTANCE;
+        }
+        if(++nodes % STOP_CHECK_INTERVAL == 0) {
+            search.addNodes(STOP_CHECK_INTERVAL);
+            if(search.isStopped()) {
+                throw SearchTimeout.INSTANCE;
+            }
+        }
+    }
+
+    /**
+     * Generates the valid turns from the worker's board into the turn list
+     * reserved for a ply, counting them and timing them in the current
+     * batch if there is one.
+     *
+     * @param ply   Distance of the node from the root.
+     * @return  Turn list for the ply.
+     */
+    private TurnList generateTurns(int ply) {
+        TurnList moves = getTurnList(ply);
+        EngineEvents.MoveGenerationEvent batch = generationBatch;
+        if(batch == null) {
+            board.generateTurns(moves, compositeMoves);
+        } else {
+            long start = System.nanoTime();
+            board.generateTurns(moves, compositeMoves);
+            batch.time += System.nanoTime() - start;
+            batch.turns += moves.size();
+            if(++batch.generations == EngineEvents.BATCH_SIZE) {
+                commitGenerations();
+                generationBatch = beginGenerations();
+            }
+        }
+        moveGenerations++;
+        generatedTurns += moves.size();
+        return moves;
+    }
+
+    /**
+     * Evaluates the worker's board with the heuristic, counting it and
+     * timing it in the current batch if there is one.
+     *
+     * @param p The maximising player identifier.
+     * @return  The heuristic value.
+     */
+    private int evaluate(int p) {
+        evaluations++;
+        EngineEvents.EvaluationEvent batch = evaluationBatch;
+        if(batch == null) {
+            return board.heuristic(p);
+        }
+        long start = System.nanoTime();
+        int value = board.heuristic(p);
+        batch.time += System.nanoTime() - start;
+        if(++batch.evaluations == EngineEvents.BATCH_SIZE) {
+            commitEvaluations();
+            evaluationBatch = beginEvaluations();
+        }
+        return value;
+    }
+
+    /**
+     * @return  A new move generation batch, or null if its events are not
+     * being recorded.
+     */
+    private static EngineEvents.MoveGenerationEvent beginGenerations() {
+        EngineEvents.MoveGenerationEvent event =
+                new EngineEvents.MoveGenerationEvent();
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records the current move generation batch if it has any generations.
+     */
+    private void commitGenerations() {
+        EngineEvents.MoveGenerationEvent event = generationBatch;
+        if(event.generations > 0 && event.shouldCommit()) {
+            event.size = board.getSize();
+            event.worker = id;
+            event.depth = iterationDepth;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return  A new evaluation batch, or null if its events are not being
+     * recorded.
+     */
+    private static EngineEvents.EvaluationEvent beginEvaluations() {
+        EngineEvents.EvaluationEvent event =
+                new EngineEvents.EvaluationEvent();
+        if(!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records the current evaluation batch if it has any evaluations.
+     */
+    private void commitEvaluations() {
+        EngineEvents.EvaluationEvent event = evaluationBatch;
+        if(event.evaluations > 0 && event.shouldCommit()) {
+            event.size = board.getSize();
+            event.worker = id;
+            event.depth = iterationDepth;
+            event.commit();
+        }
+    }
+
+    /**
+     * Converts a tablebase value to a score for the player to move. Wins
+     * score above any heuristic value, quicker wins and slower losses
+     * scoring better.
+     *
+     * @param value Tablebase probe result.
+     * @param ply   Distance of the node from the root.
+     * @return  Score for the player to move.
+     */
+    private static int getTablebaseScore(int value, int ply) {
+        if(value == Tablebase.DRAW) {
+            return 0;
+        }
+        int score = TABLEBASE_WIN - ply - Tablebase.getDistance(value);
+        return Tablebase.isLoss(value) ? -score : score;
+    }
+
+    /**
+     * Get the turn list reserved for a ply, growing the per-ply buffers if
+     * the search has gone deeper than before.
+     *
+     * @param ply   Distance of the node from the root.
+     * @return  Turn list for the ply.
+     */
+    private TurnList getTurnList(int ply) {
+        if(ply >= turnLists.length) {
+            turnLists = Arrays.copyOf(turnLists, ply * 2);
+            orderScores = Arrays.copyOf(orderScores, ply * 2);
+            killers = Arrays.copyOf(killers, ply * 2);
+        }
+        if(turnLists[ply] == null) {
+            turnLists[ply] = new TurnList();
+            orderScores[ply] = new int[64];
+        }
+        if(killers[ply] == null) {
+            killers[ply] = new int[2];
+        }
+        return turnLists[ply];
+    }
+
+    /**
+     * Scores the turns at a node for ordering into the scores buffer for its
+     * ply. Turns are identified by their first leg.
+     *
+     * @param moves The turns to order.
+     * @param ply   Distance of the node from the root.
+     * @param entry Transposition table entry for the node, or 0.
+     * @return  True if the moves were scored, false if no ordering is
+     * enabled.
+     */
+    private boolean orderMoves(TurnList moves, int ply, long entry) {
+        if(!hashMoveOrdering && !killerMoves && !historyHeuristic) {
+            return false;
+        }
+        int count = moves.size();
+        if(orderScores[ply].length < count) {
+            orderScores[ply] = new int[count * 2];
+        }
+
+        int[] scores = orderScores[ply];
+        int[] killer = killers[ply];
+        int hashMove = hashMoveOrdering && entry != 0 ?
+                TranspositionTable.getMove(entry) : IntMove.NONE;
+        int cells = board.getCellCount();
+        for(int i=0;i<count;i++) {
+            int move = moves.getFirst(i);
+            int score = 0;
+            if(move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if(killerMoves && move == killer[0]) {
+                score = KILLER_MOVE_SCORE;
+            } else if(killerMoves && move == killer[1]) {
+                score = KILLER_MOVE_SCORE - 1;
+            } else if(historyHeuristic) {
+                score = history[IntMove.getStart(move) * cells +
+                        IntMove.getDest(move)];
+            }
+            scores[i] = score;
+        }
+        return true;
+    }
+
+    /**
+     * Records a move that caused a cutoff as a killer move for its ply and in
+     * the history table.
+     *
+     * @param move  The packed move that caused the cutoff.
+     * @param d Depth remaining at the node.
+     * @param ply   Distance of the node from the root.
+     */
+    private void recordCutoff(int move, int d, int ply) {
+        if(killerMoves && move != killers[ply][0]) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        if(historyHeuristic) {
+            int i = IntMove.getStart(move) * board.getCellCount() +
+                    IntMove.getDest(move);
+            history[i] = Math.min(history[i] + d * d, KILLER_MOVE_SCORE - 2);
+        }
+    }
+
+    /**
+     * Thrown by minimax to unwind the search once it has been stopped or its
+     * deadline has passed.
+     */
+    private static final class SearchTimeout extends RuntimeException {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Shared instance, the exception carries no state or stack trace.
+         */
+        private static final SearchTimeout INSTANCE = new SearchTimeout();
+
+        private SearchTimeout() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package checkers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class Tablebase {
+
+    /**
+     * Probe result for a board state the tablebase does not cover.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Value of a drawn board state, neither player can force a win.
+     */
+    public static final int DRAW = 0;
+
+    /**
+     * Flag set on the value of a board state lost by the player to move.
+     */
+    static final int LOSS = 0x80;
+
+    /**
+     * Value of an index that does not represent a board state, two chips
+     * on the same cell.
+     */
+    static final int INVALID = 0xFF;
+
+    /**
+     * Longest distance to the end of the game the file format can hold.
+     */
+    static final int MAX_DISTANCE = 0x7E;
+
+    /**
+     * File identifier, "CKTB".
+     */
+    static final int MAGIC = 0x434B5442;
+
+    /**
+     * File format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the file header in bytes: magic, version, board size, kings of
+     * player 1, kings of player 2 and entry count, as big endian ints.
+     */
+    static final int HEADER_SIZE = 24;
+
+    /**
+     * The dimensions of the board the tablebase is for.
+     */
+    private final int size;
+
+    /**
+     * Number of habitable cells on the board.
+     */
+    private final int cells;
+
+    /**
+     * Largest number of chips covered by every table.
+     */
+    private final int maxPieces;
+
+    /**
+     * Mapped table files indexed by kings of player 1 and kings of player 2.
+     */
+    private final MappedByteBuffer[][] tables;
+
+    /**
+     * Binomial coefficients for ranking chip placements.
+     */
+    private final long[][] binomials;
+
+    /**
+     * Win, loss and draw tables for kings-only endgames, memory mapped from
+     * the files written by {@link TablebaseGenerator}.
+     *
+     * @param size  The dimensions of the board.
+     * @param maxPieces Largest number of chips covered by every table.
+     * @param tables    Mapped table files indexed by kings of each player.
+     */
+    private Tablebase(int size, int maxPieces, MappedByteBuffer[][] tables) {
+        this.size = size;
+        this.cells = size * size / 2;
+        this.maxPieces = maxPieces;
+        this.tables = tables;
+        this.binomials = binomials(cells, maxPieces);
+    }
+
+    /**
+     * Maps the tables for a board size from a directory. Tables are used up
+     * to the largest number of chips for which every split between the
+     * players has a file.
+     *
+     * @param directory Directory holding the table files.
+     * @param size  The dimensions of the board.
+     * @return  Tablebase covering the tables found.
+     * @throws IOException  If a table file cannot be read or is malformed.
+     */
+    public static Tablebase open(Path directory, int size) throws IOException {
+        int maxPieces = 1;
+        while(true) {
+            boolean complete = true;
+            for(int kings1=1;kings1<=maxPieces;kings1++) {
+                complete &= Files.exists(directory.resolve(
+                        getFileName(size, kings1, maxPieces + 1 - kings1)));
+            }
+            if(!complete) {
+                break;
+            }
+            maxPieces++;
+        }
+
+        MappedByteBuffer[][] tables =
+                new MappedByteBuffer[maxPieces + 1][maxPieces + 1];
+        for(int total=2;total<=maxPieces;total++) {
+            for(int kings1=1;kings1<total;kings1++) {
+                tables[kings1][total - kings1] = map(directory.resolve(
+                        getFileName(size, kings1, total - kings1)), size,
+                        kings1, total - kings1);
+            }
+        }
+        return new Tablebase(size, maxPieces, tables);
+    }
+
+    /**
+     * Maps a table file and checks its header.
+     *
+     * @param file  The table file.
+     * @param size  The dimensions of the board.
+     * @param kings1    Kings of player 1.
+     * @param kings2    Kings of player 2.
+     * @return  Mapped file.
+     * @throws IOException  If the file cannot be read or is malformed.
+     */
+    private static MappedByteBuffer map(Path file, int size, int kings1,
+                                        int kings2) throws IOException {
+        try(FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.limit() < HEADER_SIZE ||
+                    buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION ||
+                    buffer.getInt(8) != size || buffer.getInt(12) != kings1 ||
+                    buffer.getInt(16) != kings2 ||
+                    buffer.getInt(20) != buffer.limit() - HEADER_SIZE ||
+                    buffer.getInt(20) != getEntries(size * size / 2,
+                            kings1, kings2)) {
+                throw new IOException("Malformed tablebase file " + file);
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * @return  The dimensions of the board the tablebase is for.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return  Largest number of chips covered, 1 if no tables were found.
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Looks up a board state. Covered states have only kings on the board,
+     * at most {@link #getMaxPieces()} of them, and no multi-leg move in
+     * progress.
+     *
+     * @param checkers  The board state.
+     * @return  Value for the player to move, see {@link #isWin(int)},
+     * {@link #isLoss(int)} and {@link #getDistance(int)}, or {@link #NONE}
+     * if the board state is not covered.
+     */
+    public int probe(Checkers checkers) {
+        if(checkers.getSize() != size || checkers.isContinuing()) {
+            return NONE;
+        }
+        long[] pieces1 = checkers.getPieces(1);
+        long[] pieces2 = checkers.getPieces(2);
+        long[] kings = checkers.getKings();
+        int kings1 = 0;
+        int kings2 = 0;
+        for(int w=0;w<kings.length;w++) {
+            if(((pieces1[w] | pieces2[w]) & ~kings[w]) != 0) {
+                return NONE;
+            }
+            kings1 += Long.bitCount(pieces1[w]);
+            kings2 += Long.bitCount(pieces2[w]);
+        }
+        int player = checkers.getCurrentPlayer();
+        if((player == 1 ? kings1 : kings2) == 0) {
+            return LOSS;
+        }
+        if(kings1 == 0 || kings2 == 0 || kings1 + kings2 > maxPieces) {
+            return NONE;
+        }
+
+        long index = (player - 1) * binomials[cells][kings1] + rank(pieces1);
+        index = index * binomials[cells][kings2] + rank(pieces2);
+        return tables[kings1][kings2].get(HEADER_SIZE + (int) index) & 0xFF;
+    }
+
+    /**
+     * Ranks the set of occupied cells of a bitboard among all sets of the
+     * same number of cells.
+     *
+     * @param bb    The bitboard.
+     * @return  Rank of the occupied cells.
+     */
+    private long rank(long[] bb) {
+        long rank = 0;
+        int n = 1;
+        for(int i=Bitboard.next(bb, 0);i>=0;i=Bitboard.next(bb, i+1)) {
+            rank += binomials[i][n++];
+        }
+        return rank;
+    }
+
+    /**
+     * @param value A probe result other than {@link #NONE}.
+     * @return  True if the player to move can force a win.
+     */
+    public static boolean isWin(int value) {
+        return value != DRAW && (value & LOSS) == 0;
+    }
+
+    /**
+     * @param value A probe result other than {@link #NONE}.
+     * @return  True if the player to move loses against best play.
+     */
+    public static boolean isLoss(int value) {
+        return (value & LOSS) != 0;
+    }
+
+    /**
+     * @param value A probe result other than {@link #NONE}.
+     * @return  Number of moves until the losing player has no move left,
+     * against best play, or 0 for a draw.
+     */
+    public static int getDistance(int value) {
+        return value & ~LOSS;
+    }
+
+    /**
+     * @param size  The dimensions of the board.
+     * @param kings1    Kings of player 1.
+     * @param kings2    Kings of player 2.
+     * @return  Name of the table file.
+     */
+    static String getFileName(int size, int kings1, int kings2) {
+        return "kings-" + size + "-" + kings1 + "-" + kings2 + ".tb";
+    }
+
+    /**
+     * Entries are indexed by player to move, then the rank of player 1's
+     * cells, then the rank of player 2's cells.
+     *
+     * @param cells Number of habitable cells.
+     * @param kings1    Kings of player 1.
+     * @param kings2    Kings of player 2.
+     * @return  Number of entries in the table.
+     * @throws IllegalArgumentException If the table is too large for the
+     * file format.
+     */
+    static int getEntries(int cells, int kings1, int kings2) {
+        long[][] binomials = binomials(cells, Math.max(kings1, kings2));
+        long entries = 2 * binomials[cells][kings1] * binomials[cells][kings2];
+        if(entries > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IllegalArgumentException("Table too large: " + kings1 +
+                    " against " + kings2 + " kings on " + cells + " cells");
+        }
+        return (int) entries;
+    }
+
+    /**
+     * @param cells Number of habitable cells.
+     * @param k Largest number of chips to choose.
+     * @return  Binomial coefficients indexed by n from 0 to cells and k.
+     */
+    static long[][] binomials(int cells, int k) {
+        long[][] binomials = new long[cells + 1][k + 1];
+        for(int n=0;n<=cells;n++) {
+            binomials[n][0] = 1;
+            for(int j=1;j<=Math.min(n, k);j++) {
+                binomials[n][j] = binomials[n-1][j-1] + binomials[n-1][j];
+            }
+        }
+        return binomials;
+    }
+
+    /**
+     * Writes a table file.
+     *
+     * @param file  The file to write.
+     * @param size  The dimensions of the board.
+     * @param kings1    Kings of player 1.
+     * @param kings2    Kings of player 2.
+     * @param values    Table entries.
+     * @throws IOException  If the file cannot be written.
+     */
+    static void write(Path file, int size, int kings1, int kings2,
+                      byte[] values) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(kings1)
+                .putInt(kings2).putInt(values.length).flip();
+        try(FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header);
+            ByteBuffer body = ByteBuffer.wrap(values);
+            while(body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package checkers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+public class TablebaseGenerator {
+
+    /**
+     * The dimensions of the board.
+     */
+    private final int size;
+
+    /**
+     * Number of habitable cells on the board.
+     */
+    private final int cells;
+
+    /**
+     * Largest number of chips to generate tables for.
+     */
+    private final int maxPieces;
+
+    /**
+     * Neighbour and jump tables for the board size.
+     */
+    private final BoardGeometry geometry;
+
+    /**
+     * Binomial coefficients for ranking chip placements.
+     */
+    private final long[][] binomials;
+
+    /**
+     * Generated tables indexed by kings of player 1 and kings of player 2.
+     */
+    private final byte[][][] tables;
+
+    /**
+     * Generates kings-only endgame tables by retrograde analysis.
+     *
+     * Only kings are covered because a board with only kings stays that
+     * way: no chip can promote, and capturing a king ends the turn, so
+     * there are no multi-leg moves and every capture leads into a table
+     * with one chip fewer.
+     *
+     * @param size  The dimensions of the board.
+     * @param maxPieces Largest number of chips to generate tables for.
+     */
+    public TablebaseGenerator(int size, int maxPieces) {
+        this.size = size;
+        this.cells = size * size / 2;
+        this.maxPieces = maxPieces;
+        this.geometry = BoardGeometry.forSize(size);
+        this.binomials = Tablebase.binomials(cells, maxPieces);
+        this.tables = new byte[maxPieces + 1][maxPieces + 1][];
+    }
+
+    /**
+     * Generates every table up to the max number of chips, fewest chips
+     * first so that captures can be resolved from tables already built, and
+     * writes each to a file in a directory.
+     *
+     * @param directory Directory to write the table files to.
+     * @param pool  Pool to run the generation on.
+     * @throws IOException  If a file cannot be written.
+     */
+    public void generate(Path directory, ForkJoinPool pool)
+            throws IOException {
+        Files.createDirectories(directory);
+        for(int total=2;total<=maxPieces;total++) {
+            for(int n=1;n<total;n++) {
+                int kings1 = n;
+                int kings2 = total - n;
+                long start = System.nanoTime();
+                byte[] values = pool.submit(() ->
+                        solve(kings1, kings2)).join();
+                Path file = directory.resolve(
+                        Tablebase.getFileName(size, kings1, kings2));
+                Tablebase.write(file, size, kings1, kings2, values);
+                System.out.printf("%s: %d entries in %.1f s%n",
+                        file.getFileName(), values.length,
+                        (System.nanoTime() - start) / 1e9);
+            }
+        }
+    }
+
+    /**
+     * Solves one table.
+     *
+     * Board states where the player to move has no move are lost in 0.
+     * Each pass n then marks as won in n every board state with a move to a
+     * state lost in n - 1, and as lost in n every board state whose moves
+     * all lead to states won in at most n - 1, at least one of them in
+     * exactly n - 1. Because a pass only ever reads results of earlier
+     * passes, board states can be visited in any order and in parallel.
+     * Passes stop once one changes nothing and no capture can still lead to
+     * a longer result in a smaller table. Whatever is left is a draw.
+     *
+     * @param kings1    Kings of player 1.
+     * @param kings2    Kings of player 2.
+     * @return  Table entries.
+     */
+    private byte[] solve(int kings1, int kings2) {
+        int entries = Tablebase.getEntries(cells, kings1, kings2);
+        int per1 = (int) binomials[cells][kings1];
+        int per2 = (int) binomials[cells][kings2];
+        byte[] values = new byte[entries];
+        tables[kings1][kings2] = values;
+        int longest = 0;
+        for(byte[] smaller: new byte[][] {getTable(kings1 - 1, kings2),
+                getTable(kings1, kings2 - 1)}) {
+            if(smaller != null) {
+                for(byte value: smaller) {
+                    if((value & 0xFF) != Tablebase.INVALID) {
+                        longest = Math.max(longest,
+                                Tablebase.getDistance(value & 0xFF));
+                    }
+                }
+            }
+        }
+
+        for(int ply=0;;ply++) {
+            int n = ply;
+            AtomicBoolean changed = new AtomicBoolean();
+            IntStream.range(0, 2 * per1).parallel().forEach(row -> {
+                int player = row / per1 + 1;
+                int[] own1 = unrank(row % per1, kings1);
+                int[] own2 = unrank(0, kings2);
+                int[] child = new int[Math.max(kings1, kings2)];
+                int base = row * per2;
+                for(int r2=0;r2<per2;r2++) {
+                    if(r2 > 0) {
+                        next(own2);
+                    }
+                    int i = base + r2;
+                    if(n == 0) {
+                        values[i] = (byte) initial(own1, own2, player);
+                    } else if(values[i] == Tablebase.DRAW) {
+                        int value = evaluate(own1, own2, player, n, child);
+                        if(value != Tablebase.DRAW) {
+                            values[i] = (byte) value;
+                            changed.set(true);
+                        }
+                    }
+                }
+            });
+            if(n > 0 && !changed.get() && n > longest + 1) {
+                return values;
+            }
+            if(n >= Tablebase.MAX_DISTANCE) {
+                throw new IllegalStateException("Distance exceeds " +
+                        Tablebase.MAX_DISTANCE + " plies for " + kings1 +
+                        " against " + kings2 + " kings");
+            }
+        }
+    }
+
+    /**
+     * Gets a table that has already been generated.
+     *
+     * @param kings1    Kings of player 1.
+     * @param kings2    Kings of player 2.
+     * @return  Table entries, or null if not generated.
+     */
+    private byte[] getTable(int kings1, int kings2) {
+        return kings1 > 0 && kings2 > 0 ? tables[kings1][kings2] : null;
+    }
+
+    /**
+     * @param own1  Sorted cells of player 1's kings.
+     * @param own2  Sorted cells of player 2's kings.
+     * @param player    The player to move.
+     * @return  Invalid if two kings share a cell, lost in 0 if the player
+     * has no move, otherwise not yet known.
+     */
+    private int initial(int[] own1, int[] own2, int player) {
+        for(int a: own1) {
+            if(Arrays.binarySearch(own2, a) >= 0) {
+                return Tablebase.INVALID;
+            }
+        }
+        int[] own = player == 1 ? own1 : own2;
+        for(int cell: own) {
+            for(int d=0;d<BoardGeometry.DIRECTIONS;d++) {
+                int step = geometry.step(cell, d);
+                if(step >= 0 && (isEmpty(step, own1, own2) ||
+                        canJump(cell, d, own1, own2, player))) {
+                    return Tablebase.DRAW;
+                }
+            }
+        }
+        return Tablebase.LOSS;
+    }
+
+    /**
+     * Evaluates a board state in a pass from the results of earlier passes.
+     *
+     * @param own1  Sorted cells of player 1's kings.
+     * @param own2  Sorted cells of player 2's kings.
+     * @param player    The player to move.
+     * @param ply   The pass number.
+     * @param child Scratch array for the moved player's cells.
+     * @return  Won or lost in ply, or draw if not yet known.
+     */
+    private int evaluate(int[] own1, int[] own2, int player, int ply,
+                         int[] child) {
+        int[] own = player == 1 ? own1 : own2;
+        boolean capturing = false;
+        for(int cell: own) {
+            for(int d=0;d<BoardGeometry.DIRECTIONS && !capturing;d++) {
+                capturing = canJump(cell, d, own1, own2, player);
+            }
+        }
+
+        boolean lost = true;
+        int longest = 0;
+        for(int cell: own) {
+            for(int d=0;d<BoardGeometry.DIRECTIONS;d++) {
+                int value;
+                if(capturing) {
+                    if(!canJump(cell, d, own1, own2, player)) {
+                        continue;
+                    }
+                    value = capture(own1, own2, player, cell, d, child);
+                } else {
+                    int step = geometry.step(cell, d);
+                    if(step < 0 || !isEmpty(step, own1, own2)) {
+                        continue;
+                    }
+                    value = step(own1, own2, player, cell, step, child);
+                }
+                if(Tablebase.isLoss(value) &&
+                        Tablebase.getDistance(value) == ply - 1) {
+                    return ply;
+                }
+                if(value == Tablebase.DRAW || Tablebase.isLoss(value) ||
+                        Tablebase.getDistance(value) >= ply) {
+                    lost = false;
+                } else {
+                    longest = Math.max(longest, Tablebase.getDistance(value));
+                }
+            }
+        }
+        return lost && longest == ply - 1 ? Tablebase.LOSS | ply :
+                Tablebase.DRAW;
+    }
+
+    /**
+     * Looks up the board state after a non-capturing move.
+     *
+     * @param own1  Sorted cells of player 1's kings.
+     * @param own2  Sorted cells of player 2's kings.
+     * @param player    The player moving.
+     * @param from  Cell moved from.
+     * @param to    Cell moved to.
+     * @param child Scratch array for the moved player's cells.
+     * @return  Value of the resulting board state for the opponent.
+     */
+    private int step(int[] own1, int[] own2, int player, int from, int to,
+                     int[] child) {
+        int[] own = player == 1 ? own1 : own2;
+        int k = own.length;
+        replace(own, from, to, child);
+        long rank = rank(child, k);
+        return player == 1 ?
+                lookup(own1.length, own2.length, 2, rank, rank(own2,
+                        own2.length)) :
+                lookup(own1.length, own2.length, 1, rank(own1, own1.length),
+                        rank);
+    }
+
+    /**
+     * Looks up the board state after a capture.
+     *
+     * @param own1  Sorted cells of player 1's kings.
+     * @param own2  Sorted cells of player 2's kings.
+     * @param player    The player moving.
+     * @param from  Cell moved from.
+     * @param d The direction of the jump.
+     * @param child Scratch array for the moved player's cells.
+     * @return  Value of the resulting board state for the opponent.
+     */
+    private int capture(int[] own1, int[] own2, int player, int from, int d,
+                        int[] child) {
+        int captured = geometry.step(from, d);
+        int to = geometry.jump(from, d);
+        int[] own = player == 1 ? own1 : own2;
+        int[] opponent = player == 1 ? own2 : own1;
+        if(opponent.length == 1) {
+            return Tablebase.LOSS;
+        }
+        replace(own, from, to, child);
+        long ownRank = rank(child, own.length);
+        int[] remaining = new int[opponent.length - 1];
+        int n = 0;
+        for(int cell: opponent) {
+            if(cell != captured) {
+                remaining[n++] = cell;
+            }
+        }
+        long opponentRank = rank(remaining, remaining.length);
+        return player == 1 ?
+                lookup(own1.length, own2.length - 1, 2, ownRank,
+                        opponentRank) :
+                lookup(own1.length - 1, own2.length, 1, opponentRank,
+                        ownRank);
+    }
+
+    /**
+     * @param kings1    Kings of player 1.
+     * @param kings2    Kings of player 2.
+     * @param player    The player to move.
+     * @param rank1 Rank of player 1's cells.
+     * @param rank2 Rank of player 2's cells.
+     * @return  Table entry, from the table being solved if the chip counts
+     * are its own.
+     */
+    private int lookup(int kings1, int kings2, int player, long rank1,
+                       long rank2) {
+        long index = ((player - 1) * binomials[cells][kings1] + rank1) *
+                binomials[cells][kings2] + rank2;
+        return tables[kings1][kings2][(int) index] & 0xFF;
+    }
+
+    /**
+     * Checks whether a king can jump in a direction.
+     *
+     * @param cell  Cell of the king.
+     * @param d The direction.
+     * @param own1  Sorted cells of player 1's kings.
+     * @param own2  Sorted cells of player 2's kings.
+     * @param player    Owner of the king.
+     * @return  True if the adjacent cell holds an opponent chip and the
+     * landing cell is empty.
+     */
+    private boolean canJump(int cell, int d, int[] own1, int[] own2,
+                            int player) {
+        int over = geometry.step(cell, d);
+        int to = geometry.jump(cell, d);
+        return to >= 0 && Arrays.binarySearch(player == 1 ? own2 : own1,
+                over) >= 0 && isEmpty(to, own1, own2);
+    }
+
+    /**
+     * @param cell  The cell.
+     * @param own1  Sorted cells of player 1's kings.
+     * @param own2  Sorted cells of player 2's kings.
+     * @return  True if neither player has a king on the cell.
+     */
+    private static boolean isEmpty(int cell, int[] own1, int[] own2) {
+        return Arrays.binarySearch(own1, cell) < 0 &&
+                Arrays.binarySearch(own2, cell) < 0;
+    }
+
+    /**
+     * Copies sorted cells with one replaced, keeping them sorted.
+     *
+     * @param own   Sorted cells.
+     * @param from  Cell to remove.
+     * @param to    Cell to add.
+     * @param out   Array to copy into.
+     */
+    private static void replace(int[] own, int from, int to, int[] out) {
+        int k = own.length;
+        System.arraycopy(own, 0, out, 0, k);
+        for(int i=0;i<k;i++) {
+            if(out[i] == from) {
+                out[i] = to;
+            }
+        }
+        Arrays.sort(out, 0, k);
+    }
+
+    /**
+     * @param own   Sorted cells.
+     * @param k Number of cells.
+     * @return  Rank of the cells among all sets of k cells.
+     */
+    private long rank(int[] own, int k) {
+        long rank = 0;
+        for(int i=0;i<k;i++) {
+            rank += binomials[own[i]][i + 1];
+        }
+        return rank;
+    }
+
+    /**
+     * @param rank  Rank of a set of k cells.
+     * @param k Number of cells.
+     * @return  Sorted cells with the rank.
+     */
+    private int[] unrank(long rank, int k) {
+        int[] own = new int[k];
+        for(int i=k;i>0;i--) {
+            int cell = i - 1;
+            while(binomials[cell + 1][i] <= rank) {
+                cell++;
+            }
+            own[i - 1] = cell;
+            rank -= binomials[cell][i];
+        }
+        return own;
+    }
+
+    /**
+     * Advances sorted cells to the set with the next rank.
+     *
+     * @param own   Sorted cells.
+     */
+    private static void next(int[] own) {
+        int i = 0;
+        while(i + 1 < own.length && own[i] + 1 == own[i + 1]) {
+            own[i] = i;
+            i++;
+        }
+        own[i]++;
+    }
+
+    /**
+     * Generates tablebases.
+     *
+     * Usage: TablebaseGenerator [--out dir] [--pieces n] [--threads n]
+     * [size...]
+     *
+     * Sizes default to 8, 10 and 16 and pieces to 3.
+     *
+     * @param args  Command line arguments.
+     * @throws IOException  If a file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get("tablebases");
+        int pieces = 3;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Integer> sizes = new ArrayList<>();
+        for(int i=0;i<args.length;i++) {
+            if(args[i].equals("--out")) {
+                out = Paths.get(args[++i]);
+            } else if(args[i].equals("--pieces")) {
+                pieces = Integer.parseInt(args[++i]);
+            } else if(args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                sizes.add(Integer.parseInt(args[i]));
+            }
+        }
+        if(sizes.isEmpty()) {
+            sizes.addAll(Arrays.asList(8, 10, 16));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for(int size: sizes) {
+                new TablebaseGenerator(size, pieces).generate(out, pool);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package checkers;
+
+import java.util.Arrays;
+
+public class TranspositionTable {
+
+    /**
+     * Bound type for a score that is exact.
+     */
+    public static final int EXACT = 1;
+
+    /**
+     * Bound type for a score that is at least the stored value.
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * Bound type for a score that is at most the stored value.
+     */
+    public static final int UPPER = 3;
+
+    /**
+     * Default number of entries, 16MB of table.
+     */
+    public static final int DEFAULT_ENTRIES = 1 << 20;
+
+    /**
+     * Entries stored as pairs of longs, the key xor the data followed by the
+     * data, so torn writes from concurrent searches are detected on probe.
+     */
+    private final long[] table;
+
+    /**
+     * Mask applied to a hash to find its entry.
+     */
+    private final int mask;
+
+    /**
+     * Fixed size hash table of previously searched board states.
+     *
+     * Each entry packs the best move into bits 0-29, the bound type into
+     * bits 30-31, the depth into bits 32-37 and the score into the upper 26
+     * bits.
+     *
+     * @param entries   Number of entries, rounded down to a power of two.
+     */
+    public TranspositionTable(int entries) {
+        if(entries < 1) {
+            throw new IllegalArgumentException("entries must be positive");
+        }
+        int capacity = Integer.highestOneBit(entries);
+        table = new long[capacity * 2];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Creates a table occupying roughly the specified amount of memory.
+     *
+     * @param megabytes Size of the table in megabytes.
+     * @return  Transposition table.
+     */
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        return new TranspositionTable(megabytes * (1 << 20) / 16);
+    }
+
+    /**
+     * @return  Number of entries in this table.
+     */
+    public int getEntries() {
+        return mask + 1;
+    }
+
+    /**
+     * Looks up the data stored for a board state.
+     *
+     * @param key   The board state hash.
+     * @return  Packed entry data, or 0 if the state is not stored.
+     */
+    public long probe(long key) {
+        int i = ((int) key & mask) << 1;
+        long data = table[i + 1];
+        if((table[i] ^ data) != key) {
+            return 0;
+        }
+        return data;
+    }
+
+    /**
+     * Stores the result of searching a board state.
+     *
+     * An entry for the same state searched to a greater depth is kept,
+     * otherwise the existing entry is replaced.
+     *
+     * @param key   The board state hash.
+     * @param depth The remaining depth searched.
+     * @param bound The bound type of the score.
+     * @param score The score.
+     * @param move  The best move found as a packed move, or
+     * {@link IntMove#NONE}.
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int i = ((int) key & mask) << 1;
+        long existing = table[i + 1];
+        if((table[i] ^ existing) == key && getDepth(existing) > depth) {
+            return;
+        }
+        long data = ((long) score << 38) |
+                ((long) Math.min(depth, 63) << 32) |
+                ((long) bound << 30) |
+                move;
+        table[i] = key ^ data;
+        table[i + 1] = data;
+    }
+
+    /**
+     * Removes all entries from this table.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * @param data  Packed entry data.
+     * @return  The score stored in the entry.
+     */
+    public static int getScore(long data) {
+        return (int) (data >> 38);
+    }
+
+    /**
+     * @param data  Packed entry data.
+     * @return  The depth stored in the entry.
+     */
+    public static int getDepth(long data) {
+        return (int) (data >>> 32) & 63;
+    }
+
+    /**
+     * @param data  Packed entry data.
+     * @return  The bound type stored in the entry.
+     */
+    public static int getBound(long data) {
+        return (int) (data >>> 30) & 3;
+    }
+
+    /**
+     * @param data  Packed entry data.
+     * @return  The best move stored in the entry as a packed move, or
+     * {@link IntMove#NONE}.
+     */
+    public static int getMove(long data) {
+        return (int) data & 0x3FFFFFFF;
+    }
+}
@@ -0,0 +1,259 @@
+package checkers;
+
+import java.util.Arrays;
+
+public class TurnList {
+
+    /**
+     * Packed legs of all turns, see {@link IntMove}.
+     */
+    private int[] legs;
+
+    /**
+     * Number of packed legs in use.
+     */
+    private int legCount;
+
+    /**
+     * Index of the first leg of each turn.
+     */
+    private int[] offsets;
+
+    /**
+     * Number of legs of each turn.
+     */
+    private int[] lengths;
+
+    /**
+     * Number of turns in the list.
+     */
+    private int size;
+
+    /**
+     * Capturing turns flag.
+     */
+    private boolean capturing;
+
+    /**
+     * Legs of the capture path being generated.
+     */
+    private int[] path = new int[16];
+
+    /**
+     * Number of legs of the capture path being generated.
+     */
+    private int pathLength;
+
+    /**
+     * Move lists per leg of the capture path being generated.
+     */
+    private IntMoveList[] legLists = new IntMoveList[16];
+
+    /**
+     * Array backed list of turns, each a sequence of packed moves made by
+     * the same player: a single move, or every leg of a multi-jump. Intended
+     * to be reused rather than reallocated.
+     */
+    public TurnList() {
+        legs = new int[64];
+        offsets = new int[32];
+        lengths = new int[32];
+    }
+
+    /**
+     * @return  Number of turns in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return  True if the list has no turns.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return  True if the turns in the list are capturing turns.
+     */
+    public boolean isCapturing() {
+        return capturing;
+    }
+
+    /**
+     * Get the number of legs of a turn.
+     *
+     * @param i The turn index.
+     * @return  Number of legs, 1 unless the turn is a multi-jump.
+     */
+    public int getLegCount(int i) {
+        return lengths[i];
+    }
+
+    /**
+     * Get a leg of a turn.
+     *
+     * @param i The turn index.
+     * @param leg   The leg index.
+     * @return  Packed move.
+     */
+    public int getLeg(int i, int leg) {
+        return legs[offsets[i] + leg];
+    }
+
+    /**
+     * Get the first leg of a turn, which identifies the turn for move
+     * ordering and the transposition table.
+     *
+     * @param i The turn index.
+     * @return  Packed move.
+     */
+    public int getFirst(int i) {
+        return legs[offsets[i]];
+    }
+
+    /**
+     * Swaps two turns in the list.
+     *
+     * @param i First index.
+     * @param j Second index.
+     */
+    public void swap(int i, int j) {
+        int offset = offsets[i];
+        offsets[i] = offsets[j];
+        offsets[j] = offset;
+        int length = lengths[i];
+        lengths[i] = lengths[j];
+        lengths[j] = length;
+    }
+
+    /**
+     * Makes every leg of a turn on a board.
+     *
+     * @param board The board state.
+     * @param i The turn index.
+     */
+    public void make(Checkers board, int i) {
+        for(int leg=0;leg<lengths[i];leg++) {
+            board.makeMove(legs[offsets[i] + leg]);
+        }
+    }
+
+    /**
+     * Takes back every leg of a turn made with {@link #make(Checkers, int)}.
+     *
+     * @param board The board state.
+     * @param i The turn index.
+     */
+    public void unmake(Checkers board, int i) {
+        for(int leg=lengths[i]-1;leg>=0;leg--) {
+            board.unmakeMove(legs[offsets[i] + leg]);
+        }
+    }
+
+    /**
+     * Converts a turn to a move object, following legs linked through
+     * {@link Move#getNext()}.
+     *
+     * @param i The turn index.
+     * @return  Move object.
+     */
+    public Move toMove(int i) {
+        Move move = null;
+        for(int leg=lengths[i]-1;leg>=0;leg--) {
+            int packed = legs[offsets[i] + leg];
+            move = new Move(IntMove.getStart(packed), IntMove.getDest(packed),
+                    IntMove.getCaptured(packed), move);
+        }
+        return move;
+    }
+
+    /**
+     * Converts the list to a collection of move objects.
+     *
+     * @return  Collection of moves.
+     */
+    public MoveCollection toMoveCollection() {
+        MoveCollection collection = new MoveCollection();
+        collection.ensureCapacity(size);
+        for(int i=0;i<size;i++) {
+            collection.add(toMove(i));
+        }
+        collection.setCapturing(capturing);
+        return collection;
+    }
+
+    /**
+     * Removes all turns and resets the capturing flag.
+     */
+    void clear() {
+        size = 0;
+        legCount = 0;
+        pathLength = 0;
+        capturing = false;
+    }
+
+    /**
+     * Sets capturing turn flag.
+     *
+     * @param capturing Capturing turn flag value.
+     */
+    void setCapturing(boolean capturing) {
+        this.capturing = capturing;
+    }
+
+    /**
+     * Get the scratch move list for a leg of the capture path being
+     * generated.
+     *
+     * @param leg   The leg index.
+     * @return  Move list for the leg.
+     */
+    IntMoveList getLegList(int leg) {
+        if(leg >= legLists.length) {
+            legLists = Arrays.copyOf(legLists, leg * 2);
+        }
+        if(legLists[leg] == null) {
+            legLists[leg] = new IntMoveList(8);
+        }
+        return legLists[leg];
+    }
+
+    /**
+     * Appends a leg to the capture path being generated.
+     *
+     * @param move  Packed move.
+     */
+    void push(int move) {
+        if(pathLength == path.length) {
+            path = Arrays.copyOf(path, pathLength * 2);
+        }
+        path[pathLength++] = move;
+    }
+
+    /**
+     * Removes the last leg of the capture path being generated.
+     */
+    void pop() {
+        pathLength--;
+    }
+
+    /**
+     * Adds the capture path being generated as a turn.
+     */
+    void addPath() {
+        if(size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        if(legCount + pathLength > legs.length) {
+            legs = Arrays.copyOf(legs, (legCount + pathLength) * 2);
+        }
+        System.arraycopy(path, 0, legs, legCount, pathLength);
+        offsets[size] = legCount;
+        lengths[size] = pathLength;
+        legCount += pathLength;
+        size++;
+    }
+}
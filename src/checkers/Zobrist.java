@@ -0,0 +1,91 @@
+package checkers;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class Zobrist {
+
+    /**
+     * Shared key tables indexed by number of habitable cells.
+     */
+    private static final ConcurrentHashMap<Integer, Zobrist> TABLES =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Keys indexed by chip kind and then cell index. The chip kind is
+     * (player - 1) * 2, plus one for kings.
+     */
+    private final long[][] chipKeys;
+
+    /**
+     * Keys for a multi-leg move continuing from a cell, indexed by cell.
+     */
+    private final long[] continuationKeys;
+
+    /**
+     * Key for player 2 being the current player.
+     */
+    private final long playerKey;
+
+    /**
+     * Random keys for incrementally hashing board states.
+     *
+     * Keys are generated from a fixed seed so that hashes are stable between
+     * runs and may be stored in files.
+     *
+     * @param cells Number of habitable cells on the board.
+     */
+    private Zobrist(int cells) {
+        Random random = new Random(0x5EED_0000L + cells);
+        chipKeys = new long[4][cells];
+        continuationKeys = new long[cells];
+        for(long[] keys: chipKeys) {
+            for(int i=0;i<cells;i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+        for(int i=0;i<cells;i++) {
+            continuationKeys[i] = random.nextLong();
+        }
+        playerKey = random.nextLong();
+    }
+
+    /**
+     * Get the shared key tables for a board.
+     *
+     * @param cells Number of habitable cells on the board.
+     * @return  Key tables for the board.
+     */
+    public static Zobrist forCells(int cells) {
+        return TABLES.computeIfAbsent(cells, Zobrist::new);
+    }
+
+    /**
+     * Get the key for a chip on a cell.
+     *
+     * @param player    The owner of the chip.
+     * @param king  True if the chip is a king.
+     * @param i The cell index.
+     * @return  Key for the chip.
+     */
+    public long chip(int player, boolean king, int i) {
+        return chipKeys[(player - 1) * 2 + (king ? 1 : 0)][i];
+    }
+
+    /**
+     * Get the key for a multi-leg move continuing from a cell.
+     *
+     * @param i The cell index of the chip making the multi-leg move.
+     * @return  Key for the continuation.
+     */
+    public long continuation(int i) {
+        return continuationKeys[i];
+    }
+
+    /**
+     * @return  Key for player 2 being the current player.
+     */
+    public long player() {
+        return playerKey;
+    }
+}
@@ -0,0 +1,520 @@
+package checkers.analysis;
+
+import checkers.Checkers;
+import checkers.Engine;
+import checkers.Notation;
+import checkers.SearchResult;
+import checkers.TranspositionTable;
+import checkers.record.GameArchive;
+import checkers.record.GameRecord;
+import checkers.record.GameReplay;
+import checkers.record.GameSource;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BatchAnalysis {
+
+    /**
+     * Positions each search thread may have read ahead of the output.
+     */
+    private static final int WINDOW_PER_THREAD = 16;
+
+    /**
+     * Number of search threads.
+     */
+    private final int threads;
+
+    /**
+     * Transposition table size of each search thread's engine in megabytes.
+     */
+    private final int hashMegabytes;
+
+    /**
+     * The max depth for minimax.
+     */
+    private final int maxDepth;
+
+    /**
+     * Time allowed per position, or null to search to the max depth.
+     */
+    private final Duration budget;
+
+    /**
+     * Write results in input order rather than as they complete.
+     */
+    private final boolean ordered;
+
+    /**
+     * Directory of opening books to load, or null for none.
+     */
+    private Path books;
+
+    /**
+     * Directory of tablebases to load, or null for none.
+     */
+    private Path tablebases;
+
+    /**
+     * Positions waiting for a search thread.
+     */
+    private final BlockingQueue<Task> work;
+
+    /**
+     * Analysed positions waiting to be written.
+     */
+    private final BlockingQueue<Task> done = new LinkedBlockingQueue<>();
+
+    /**
+     * Permits for positions read but not yet written, blocking the reader
+     * once the window is full.
+     */
+    private final Semaphore window;
+
+    /**
+     * Nodes visited by all search threads.
+     */
+    private final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * Analyses a stream of positions offline with the engine used by
+     * {@link Checkers#getNextBestMove(Duration)}, one single threaded engine
+     * per search thread so that every core searches its own position.
+     *
+     * Positions are read, searched and written by separate threads joined
+     * by bounded queues. The reader blocks once a fixed window of positions
+     * has been read but not written, so memory use does not grow with the
+     * size of the input, and while results are written in input order a
+     * slow position holds back at most that window.
+     *
+     * @param threads   Number of search threads.
+     * @param hashMegabytes Transposition table size of each engine.
+     * @param maxDepth  The max depth for minimax.
+     * @param budget    Time allowed per position, or null to search to the
+     * max depth.
+     * @param ordered   True to write results in input order, false to write
+     * them as they complete, identified by their tags.
+     */
+    public BatchAnalysis(int threads, int hashMegabytes, int maxDepth,
+                         Duration budget, boolean ordered) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.threads = threads;
+        this.hashMegabytes = hashMegabytes;
+        this.maxDepth = maxDepth;
+        this.budget = budget;
+        this.ordered = ordered;
+        this.work = new ArrayBlockingQueue<>(threads * 2);
+        this.window = new Semaphore(threads * WINDOW_PER_THREAD);
+    }
+
+    /**
+     * Sets the engine data loaded by every search thread.
+     *
+     * @param books Directory of opening books to load, or null for none.
+     * @param tablebases    Directory of tablebases to load, or null for none.
+     */
+    public void setEngineData(Path books, Path tablebases) {
+        this.books = books;
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Analyses every position of the input, writing a line for each.
+     *
+     * The input is either a text file with a position per line, see
+     * {@link Notation}, optionally preceded by a tag and white space, or a
+     * game file read by {@link GameArchive}, in which case every position
+     * of every game before the end is analysed. Untagged positions are
+     * tagged with their line number, and game positions with the game
+     * number and ply, such as 12:30. Blank lines and lines starting with #
+     * are skipped.
+     *
+     * Each output line holds the tag, best move, how it was found, score,
+     * depth, nodes and time in milliseconds separated by tabs, or the tag
+     * and an error message if the position could not be analysed. Score
+     * and depth are left empty for forced, book and tablebase moves, which
+     * are not searched.
+     *
+     * @param input The file of positions or games.
+     * @param out   Receives the results.
+     * @return  Number of positions analysed.
+     * @throws IOException  If the input, books or tablebases cannot be
+     * read.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public long run(Path input, PrintWriter out) throws IOException,
+            InterruptedException {
+        Engine[] engines = new Engine[threads];
+        for(int i=0;i<threads;i++) {
+            engines[i] = createEngine();
+        }
+        Thread[] workers = new Thread[threads];
+        for(int i=0;i<threads;i++) {
+            Engine engine = engines[i];
+            workers[i] = new Thread(() -> work(engine),
+                    "checkers-analysis-" + i);
+            workers[i].start();
+        }
+        Thread writer = new Thread(() -> write(out), "checkers-output");
+        writer.start();
+        long count;
+        try {
+            count = read(input);
+        } finally {
+            for(int i=0;i<threads;i++) {
+                work.put(Task.END);
+            }
+            for(Thread worker: workers) {
+                worker.join();
+            }
+            done.put(Task.END);
+            writer.join();
+        }
+        return count;
+    }
+
+    /**
+     * @return  Nodes visited by all search threads.
+     */
+    public long getNodes() {
+        return nodes.get();
+    }
+
+    /**
+     * Reads the input, queuing each position once the window has room.
+     *
+     * @param input The file of positions or games.
+     * @return  Number of positions read.
+     * @throws IOException  If the input cannot be read.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private long read(Path input) throws IOException, InterruptedException {
+        String name = input.getFileName().toString();
+        if(name.endsWith(".txt") || name.endsWith(".fen")) {
+            return readPositions(input);
+        }
+        return readGames(input);
+    }
+
+    /**
+     * Reads a text file of positions.
+     *
+     * @param input The file.
+     * @return  Number of positions read.
+     * @throws IOException  If the file cannot be read.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private long readPositions(Path input) throws IOException,
+            InterruptedException {
+        long count = 0;
+        long number = 0;
+        try(BufferedReader in = Files.newBufferedReader(input,
+                StandardCharsets.UTF_8)) {
+            String line;
+            while((line = in.readLine()) != null) {
+                number++;
+                line = line.trim();
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+", 2);
+                String tag = fields.length == 2 ? fields[0] :
+                        Long.toString(number);
+                submit(new Task(count++, tag, fields[fields.length - 1],
+                        null));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads a game file, queuing every position before the end of each
+     * game.
+     *
+     * @param input The file.
+     * @return  Number of positions read.
+     * @throws IOException  If the file cannot be read.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private long readGames(Path input) throws IOException,
+            InterruptedException {
+        long count = 0;
+        long game = 0;
+        try(GameSource in = GameArchive.open(input)) {
+            GameRecord record;
+            while((record = in.read()) != null) {
+                game++;
+                GameReplay replay = new GameReplay(record);
+                while(replay.hasNext()) {
+                    submit(new Task(count++, game + ":" + replay.getPly(),
+                            null, new Checkers(replay.getPosition())));
+                    replay.next();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Queues a position, first waiting for room in the window.
+     *
+     * @param task  The position.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private void submit(Task task) throws InterruptedException {
+        window.acquire();
+        work.put(task);
+    }
+
+    /**
+     * Analyses queued positions until the end marker.
+     *
+     * @param engine    The search thread's engine.
+     */
+    private void work(Engine engine) {
+        try {
+            Task task;
+            while((task = work.take()) != Task.END) {
+                task.result = analyse(engine, task);
+                done.put(task);
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * Creates the engine of a search thread.
+     *
+     * @return  The engine, with any books and tablebases loaded.
+     * @throws IOException  If the books or tablebases cannot be read.
+     */
+    private Engine createEngine() throws IOException {
+        Engine engine = new Engine(1,
+                TranspositionTable.ofMegabytes(hashMegabytes));
+        if(books != null) {
+            engine.loadOpeningBooks(books);
+        }
+        if(tablebases != null) {
+            engine.loadTablebases(tablebases);
+        }
+        return engine;
+    }
+
+    /**
+     * Analyses a position.
+     *
+     * @param engine    The search thread's engine.
+     * @param task  The position.
+     * @return  Result columns, or an error message.
+     */
+    private String analyse(Engine engine, Task task) {
+        try {
+            Checkers position = task.position != null ? task.position :
+                    Notation.parsePosition(task.text);
+            SearchResult result = engine.analyse(position, maxDepth, budget,
+                    null, null);
+            nodes.addAndGet(result.getNodes());
+            if(result.getMove() == null) {
+                return "none";
+            }
+            boolean searched = result.getSource() ==
+                    SearchResult.Source.SEARCH || result.getSource() ==
+                    SearchResult.Source.PONDER;
+            return Notation.formatMove(result.getMove()) + '\t' +
+                    result.getSource().name().toLowerCase() + '\t' +
+                    (searched ? result.getScore() + "\t" +
+                            result.getDepth() : "\t") + '\t' +
+                    result.getNodes() + '\t' + result.getTime().toMillis();
+        } catch(RuntimeException e) {
+            return "error " + e.getMessage();
+        }
+    }
+
+    /**
+     * Writes analysed positions until the end marker, in input order if
+     * ordered, holding back positions that complete early until those
+     * before them have been written.
+     *
+     * @param out   Receives the results.
+     */
+    private void write(PrintWriter out) {
+        Map<Long, Task> pending = new HashMap<>();
+        long next = 0;
+        try {
+            Task task;
+            while((task = done.take()) != Task.END) {
+                if(!ordered) {
+                    print(out, task);
+                    continue;
+                }
+                pending.put(task.sequence, task);
+                while((task = pending.remove(next)) != null) {
+                    print(out, task);
+                    next++;
+                }
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes the line of an analysed position and frees its place in the
+     * window.
+     *
+     * @param out   Receives the results.
+     * @param task  The analysed position.
+     */
+    private void print(PrintWriter out, Task task) {
+        out.print(task.tag);
+        out.print('\t');
+        out.println(task.result);
+        window.release();
+    }
+
+    /**
+     * Analyses positions from a file.
+     *
+     * Usage: BatchAnalysis [--threads n] [--hash mb] [--depth n]
+     * [--time ms] [--unordered] [--books dir] [--tablebases dir]
+     * input [output]
+     *
+     * Input files ending in .txt or .fen hold a position per line, others
+     * are game files, see {@link #run(Path, PrintWriter)}. Results are
+     * written to the output file, or standard output if none is given.
+     * Threads default to one per processor, hash to 16 MB per thread and
+     * the search to depth 8. With a time the search is limited by it rather
+     * than the depth.
+     *
+     * @param args  Command line arguments.
+     * @throws Exception    If a file cannot be read or written.
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hash = 16;
+        int depth = 8;
+        Duration time = null;
+        boolean ordered = true;
+        Path books = null;
+        Path tablebases = null;
+        Path input = null;
+        Path output = null;
+        for(int i=0;i<args.length;i++) {
+            switch(args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--hash": hash = Integer.parseInt(args[++i]); break;
+                case "--depth": depth = Integer.parseInt(args[++i]); break;
+                case "--time": time = Duration.ofMillis(
+                        Long.parseLong(args[++i])); break;
+                case "--unordered": ordered = false; break;
+                case "--books": books = Paths.get(args[++i]); break;
+                case "--tablebases": tablebases = Paths.get(args[++i]); break;
+                default:
+                    if(args[i].startsWith("--")) {
+                        throw new IllegalArgumentException(
+                                "Unknown argument " + args[i]);
+                    }
+                    if(input == null) {
+                        input = Paths.get(args[i]);
+                    } else {
+                        output = Paths.get(args[i]);
+                    }
+            }
+        }
+        if(input == null) {
+            throw new IllegalArgumentException("No input file");
+        }
+
+        BatchAnalysis analysis = new BatchAnalysis(threads, hash,
+                time != null ? Engine.MAX_DEPTH : depth, time, ordered);
+        analysis.setEngineData(books, tablebases);
+        long start = System.nanoTime();
+        long count;
+        if(output != null) {
+            try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(
+                    output, StandardCharsets.UTF_8))) {
+                count = analysis.run(input, out);
+            }
+        } else {
+            PrintWriter out = new PrintWriter(new BufferedWriter(
+                    new OutputStreamWriter(System.out,
+                            StandardCharsets.UTF_8)));
+            count = analysis.run(input, out);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d positions in %.1f s, %.1f positions/s, " +
+                        "%.0f nodes/s%n", count, seconds, count / seconds,
+                analysis.getNodes() / seconds);
+    }
+
+    /**
+     * A position moving through the pipeline.
+     */
+    private static final class Task {
+
+        /**
+         * Marker ending a queue.
+         */
+        private static final Task END = new Task(-1, null, null, null);
+
+        /**
+         * Position number in input order, from 0.
+         */
+        private final long sequence;
+
+        /**
+         * Tag identifying the position in the output.
+         */
+        private final String tag;
+
+        /**
+         * Position text, or null if the board is given.
+         */
+        private final String text;
+
+        /**
+         * The board, or null to parse it from the text.
+         */
+        private final Checkers position;
+
+        /**
+         * Result columns or error message, set once analysed.
+         */
+        private String result;
+
+        /**
+         * @param sequence  Position number in input order.
+         * @param tag   Tag identifying the position.
+         * @param text  Position text, or null if the board is given.
+         * @param position  The board, or null to parse it from the text.
+         */
+        Task(long sequence, String tag, String text, Checkers position) {
+            this.sequence = sequence;
+            this.tag = tag;
+            this.text = text;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package checkers.bench;
+
+import checkers.Checkers;
+import checkers.IntMove;
+import checkers.IntMoveList;
+import checkers.Move;
+import checkers.MoveCollection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class Perft {
+
+    /**
+     * Leaf counts from the starting position indexed by depth, for the 8x8,
+     * 10x10 and 16x16 boards. Each leg of a multi-jump counts as one ply.
+     */
+    private static final long[][] REFERENCE = {
+            {1, 7, 49, 302, 1469, 7361, 36768, 179255, 838248, 3866526,
+                    17570330, 79238002},
+            {1, 9, 81, 658, 4265, 26875, 164406, 1014835, 6136201,
+                    37526980},
+            {1, 15, 225, 3166, 37709, 424393, 4342392, 43775791}
+    };
+
+    /**
+     * Board sizes the reference counts are for, parallel to REFERENCE.
+     */
+    private static final int[] REFERENCE_SIZES = {8, 10, 16};
+
+    /**
+     * Remaining depth at or below which parallel perft counts a subtree on
+     * the current thread instead of forking.
+     */
+    private static final int SEQUENTIAL_DEPTH = 3;
+
+    /**
+     * Table of subtree counts, or null if counts are not cached.
+     */
+    private final PerftTable table;
+
+    /**
+     * Counts leaf nodes of the move tree, to check move generation against
+     * known counts and to measure its raw speed.
+     *
+     * @param tableEntries  Number of cached subtree counts, or 0 to disable
+     * the cache.
+     */
+    public Perft(int tableEntries) {
+        this.table = tableEntries > 0 ? new PerftTable(tableEntries) : null;
+    }
+
+    /**
+     * Counts leaf nodes to a depth on the current thread.
+     *
+     * @param checkers  The board state, left as it was found.
+     * @param depth Number of plies to count to.
+     * @return  Number of leaf nodes.
+     */
+    public long count(Checkers checkers, int depth) {
+        IntMoveList[] lists = new IntMoveList[depth + 1];
+        for(int i=0;i<lists.length;i++) {
+            lists[i] = new IntMoveList();
+        }
+        return count(checkers, depth, lists);
+    }
+
+    /**
+     * Counts leaf nodes to a depth, splitting the tree into fork join tasks
+     * near the root.
+     *
+     * @param checkers  The board state, left as it was found.
+     * @param depth Number of plies to count to.
+     * @param pool  Pool to run the tasks on.
+     * @return  Number of leaf nodes.
+     */
+    public long count(Checkers checkers, int depth, ForkJoinPool pool) {
+        return pool.invoke(new PerftTask(new Checkers(checkers), depth));
+    }
+
+    /**
+     * Counts leaf nodes using the move objects of getValidMoves and moveChip
+     * on copies of the board, the way the game itself plays. Much slower,
+     * used to check the packed move path against.
+     *
+     * @param checkers  The board state.
+     * @param depth Number of plies to count to.
+     * @return  Number of leaf nodes.
+     */
+    public static long countMoveObjects(Checkers checkers, int depth) {
+        if(depth == 0) {
+            return 1;
+        }
+        MoveCollection moves = checkers.getValidMoves();
+        if(depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for(Move move: moves) {
+            Checkers copy = new Checkers(checkers);
+            copy.moveChip(move);
+            nodes += countMoveObjects(copy, depth - 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Get the known leaf count from the starting position.
+     *
+     * @param size  The dimensions of the board.
+     * @param depth Number of plies.
+     * @return  Known leaf count, or -1 if none is known.
+     */
+    public static long getReferenceCount(int size, int depth) {
+        for(int i=0;i<REFERENCE_SIZES.length;i++) {
+            if(REFERENCE_SIZES[i] == size) {
+                return depth < REFERENCE[i].length ? REFERENCE[i][depth] : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sequential perft with make and unmake on a single board.
+     *
+     * @param checkers  The board state.
+     * @param depth Number of plies to count to.
+     * @param lists Move list per remaining depth.
+     * @return  Number of leaf nodes.
+     */
+    private long count(Checkers checkers, int depth, IntMoveList[] lists) {
+        if(depth == 0) {
+            return 1;
+        }
+        IntMoveList moves = lists[depth];
+        checkers.generateMoves(moves);
+        if(depth == 1) {
+            return moves.size();
+        }
+        long hash = checkers.getHash();
+        if(table != null) {
+            long nodes = table.probe(hash, depth);
+            if(nodes >= 0) {
+                return nodes;
+            }
+        }
+        long nodes = 0;
+        for(int i=0;i<moves.size();i++) {
+            int move = moves.get(i);
+            checkers.makeMove(move);
+            nodes += count(checkers, depth - 1, lists);
+            checkers.unmakeMove(move);
+        }
+        if(table != null) {
+            table.store(hash, depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Runs perft from the starting position and prints counts and speed.
+     *
+     * Usage: Perft [--size n] [--depth n] [--threads n] [--hash entries]
+     * [--divide] [--verify]
+     *
+     * With --threads above 1 the tree is counted on a fork join pool. With
+     * --hash subtree counts are cached by position hash and depth. --divide
+     * prints the count below each root move. --verify also counts with the
+     * move objects the game uses. Counts are compared with the reference
+     * counts where known and the exit status is 1 on any mismatch.
+     *
+     * @param args  Command line arguments.
+     */
+    public static void main(String[] args) {
+        int size = 10;
+        int depth = 7;
+        int threads = 1;
+        int hash = 0;
+        boolean divide = false;
+        boolean verify = false;
+        for(int i=0;i<args.length;i++) {
+            switch(args[i]) {
+                case "--size": size = Integer.parseInt(args[++i]); break;
+                case "--depth": depth = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--hash": hash = Integer.parseInt(args[++i]); break;
+                case "--divide": divide = true; break;
+                case "--verify": verify = true; break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        Checkers checkers = new Checkers(size);
+        Perft perft = new Perft(hash);
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        boolean ok = true;
+
+        if(divide) {
+            IntMoveList moves = new IntMoveList();
+            checkers.generateMoves(moves);
+            for(int i=0;i<moves.size();i++) {
+                int move = moves.get(i);
+                checkers.makeMove(move);
+                long nodes = depth > 1 ? perft.count(checkers, depth - 1) : 1;
+                checkers.unmakeMove(move);
+                System.out.printf("%s: %d%n", describe(move), nodes);
+            }
+        }
+
+        for(int d=1;d<=depth;d++) {
+            long start = System.nanoTime();
+            long nodes = pool != null ? perft.count(checkers, d, pool) :
+                    perft.count(checkers, d);
+            long nanos = Math.max(System.nanoTime() - start, 1);
+            long reference = getReferenceCount(size, d);
+            String status = reference < 0 ? "" :
+                    reference == nodes ? " ok" : " MISMATCH, expected " +
+                            reference;
+            if(verify) {
+                long objects = countMoveObjects(checkers, d);
+                if(objects != nodes) {
+                    status += " MISMATCH with move objects " + objects;
+                }
+            }
+            ok &= !status.contains("MISMATCH");
+            System.out.printf("perft %2d %14d %10.1f ms %12.0f nodes/s%s%n",
+                    d, nodes, nanos / 1e6, nodes * 1e9 / nanos, status);
+        }
+
+        if(pool != null) {
+            pool.shutdown();
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * @param move  Packed move.
+     * @return  Move in 1 based cell numbers, as shown by the game.
+     */
+    private static String describe(int move) {
+        Move m = IntMove.toMove(move);
+        return (m.getStart() + 1) + (m.getCaptured() >= 0 ? "x" : "-") +
+                (m.getDest() + 1);
+    }
+
+    /**
+     * Fork join task counting the subtree below a board state.
+     */
+    private class PerftTask extends RecursiveTask<Long> {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The task's own board state.
+         */
+        private final transient Checkers checkers;
+
+        /**
+         * Number of plies to count to.
+         */
+        private final int depth;
+
+        /**
+         * @param checkers  The task's own board state.
+         * @param depth Number of plies to count to.
+         */
+        PerftTask(Checkers checkers, int depth) {
+            this.checkers = checkers;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if(depth <= SEQUENTIAL_DEPTH) {
+                return count(checkers, depth);
+            }
+            long hash = checkers.getHash();
+            if(table != null) {
+                long nodes = table.probe(hash, depth);
+                if(nodes >= 0) {
+                    return nodes;
+                }
+            }
+            IntMoveList moves = new IntMoveList();
+            checkers.generateMoves(moves);
+            List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for(int i=0;i<moves.size();i++) {
+                Checkers copy = new Checkers(checkers);
+                copy.makeMove(moves.get(i));
+                tasks.add(new PerftTask(copy, depth - 1));
+            }
+            long nodes = 0;
+            for(PerftTask task: invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            if(table != null) {
+                table.store(hash, depth, nodes);
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Lockless table of subtree counts keyed by position hash and depth.
+     * Each entry holds the key xor the count alongside the count, so an
+     * entry torn by concurrent writers fails to verify and reads as a miss.
+     */
+    private static final class PerftTable {
+
+        /**
+         * Pairs of (key ^ count, count).
+         */
+        private final long[] table;
+
+        /**
+         * Mask selecting an entry from a key.
+         */
+        private final int mask;
+
+        /**
+         * @param entries   Number of entries, rounded down to a power of two.
+         */
+        PerftTable(int entries) {
+            int size = Integer.highestOneBit(entries);
+            table = new long[size * 2];
+            mask = size - 1;
+        }
+
+        /**
+         * @param hash  Position hash.
+         * @param depth Number of plies.
+         * @return  Key for the entry.
+         */
+        private static long key(long hash, int depth) {
+            return hash ^ (depth * 0x9E3779B97F4A7C15L);
+        }
+
+        /**
+         * @param hash  Position hash.
+         * @param depth Number of plies.
+         * @return  Cached count, or -1 on a miss.
+         */
+        long probe(long hash, int depth) {
+            long key = key(hash, depth);
+            int i = ((int) key & mask) * 2;
+            long count = table[i + 1];
+            return (table[i] ^ count) == key ? count : -1;
+        }
+
+        /**
+         * @param hash  Position hash.
+         * @param depth Number of plies.
+         * @param count Leaf count of the subtree.
+         */
+        void store(long hash, int depth, long count) {
+            long key = key(hash, depth);
+            int i = ((int) key & mask) * 2;
+            table[i] = key ^ count;
+            table[i + 1] = count;
+        }
+    }
+}
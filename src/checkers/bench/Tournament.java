@@ -0,0 +1,547 @@
+package checkers.bench;
+
+import checkers.Checkers;
+import checkers.Engine;
+import checkers.Move;
+import checkers.MoveCollection;
+import checkers.Notation;
+import checkers.TranspositionTable;
+import checkers.record.GameArchive;
+import checkers.record.GameRecord;
+import checkers.record.GameRecordWriter;
+import checkers.record.GameSink;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Tournament {
+
+    /**
+     * Game outcome for the first engine: a win.
+     */
+    static final int WIN = 1;
+
+    /**
+     * Game outcome for the first engine: a draw.
+     */
+    static final int DRAW = 0;
+
+    /**
+     * Game outcome for the first engine: a loss.
+     */
+    static final int LOSS = -1;
+
+    /**
+     * Number of times a board state must occur for a game to be drawn by
+     * repetition.
+     */
+    private static final int REPETITIONS = 3;
+
+    /**
+     * The dimensions of the board.
+     */
+    private final int size;
+
+    /**
+     * Number of random moves played from the starting position before the
+     * engines take over.
+     */
+    private final int randomPlies;
+
+    /**
+     * Number of moves after which a game is drawn.
+     */
+    private final int maxPlies;
+
+    /**
+     * Seed the random openings are derived from.
+     */
+    private final long seed;
+
+    /**
+     * Transposition table size of each engine in megabytes.
+     */
+    private final int hashMegabytes;
+
+    /**
+     * Settings of the two engines.
+     */
+    private final Side[] sides;
+
+    /**
+     * Games won by the first engine.
+     */
+    private final LongAdder wins = new LongAdder();
+
+    /**
+     * Games drawn.
+     */
+    private final LongAdder draws = new LongAdder();
+
+    /**
+     * Games lost by the first engine.
+     */
+    private final LongAdder losses = new LongAdder();
+
+    /**
+     * Receives every game played, or null to keep no record.
+     */
+    private GameSink games;
+
+    /**
+     * Plays engine against engine without the UI, each game on its own copy
+     * of the board and each worker thread with its own pair of single
+     * threaded engines, so that games run in parallel without sharing any
+     * search state.
+     *
+     * Games are played in pairs from the same random opening with the
+     * engines swapping colours, so that an unbalanced opening favours
+     * neither engine.
+     *
+     * @param size  The dimensions of the board.
+     * @param randomPlies   Number of random moves played before the engines
+     * take over.
+     * @param maxPlies  Number of moves after which a game is drawn.
+     * @param seed  Seed the random openings are derived from.
+     * @param hashMegabytes Transposition table size of each engine.
+     * @param first Settings of the first engine.
+     * @param second    Settings of the second engine.
+     */
+    public Tournament(int size, int randomPlies, int maxPlies, long seed,
+                      int hashMegabytes, Side first, Side second) {
+        this.size = size;
+        this.randomPlies = randomPlies;
+        this.maxPlies = maxPlies;
+        this.seed = seed;
+        this.hashMegabytes = hashMegabytes;
+        this.sides = new Side[] {first, second};
+    }
+
+    /**
+     * Sets where every game played is written.
+     *
+     * @param games Receives every game played, or null to keep no record.
+     */
+    public void setGames(GameSink games) {
+        this.games = games;
+    }
+
+    /**
+     * Plays the games, printing progress as they complete.
+     *
+     * @param games Number of games, rounded up to an even number.
+     * @param threads   Number of games played at once.
+     * @throws Exception    If a game fails.
+     */
+    public void run(int games, int threads) throws Exception {
+        int pairs = (games + 1) / 2;
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger played = new AtomicInteger();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] workers = new Future<?>[threads];
+            for(int i=0;i<threads;i++) {
+                workers[i] = executor.submit(() -> {
+                    Engine[] engines = {createEngine(sides[0]),
+                            createEngine(sides[1])};
+                    try {
+                        int pair;
+                        while((pair = next.getAndIncrement()) < pairs) {
+                            Checkers opening = createOpening(pair);
+                            for(int swap=0;swap<2;swap++) {
+                                record(play(opening, engines, swap));
+                                int count = played.incrementAndGet();
+                                if(count % 100 == 0) {
+                                    System.out.printf("%d games, %s%n",
+                                            count, getScoreLine());
+                                }
+                            }
+                        }
+                    } finally {
+                        engines[0].shutdown();
+                        engines[1].shutdown();
+                    }
+                    return null;
+                });
+            }
+            for(Future<?> worker: workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.printf("%d games in %.1f s%n", played.get(),
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Creates a single threaded engine with the settings of a side.
+     *
+     * @param side  The engine settings.
+     * @return  The engine.
+     */
+    private Engine createEngine(Side side) {
+        Engine engine = new Engine(1,
+                TranspositionTable.ofMegabytes(hashMegabytes));
+        for(Map.Entry<String, Boolean> option: side.options.entrySet()) {
+            boolean value = option.getValue();
+            switch(option.getKey()) {
+                case "hashMoveOrdering": engine.setHashMoveOrdering(value);
+                    break;
+                case "killerMoves": engine.setKillerMoves(value); break;
+                case "historyHeuristic": engine.setHistoryHeuristic(value);
+                    break;
+                case "quiescence": engine.setQuiescence(value); break;
+                case "compositeMoves": engine.setCompositeMoves(value); break;
+                default: throw new IllegalArgumentException(
+                        "Unknown engine option " + option.getKey());
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Plays random moves from the starting position. The random moves
+     * depend only on the seed and the pair number, so a run can be repeated.
+     *
+     * @param pair  The game pair number.
+     * @return  Board state the engines start from.
+     */
+    private Checkers createOpening(int pair) {
+        Random random = new Random(seed * 31 + pair);
+        Checkers checkers;
+        do {
+            checkers = new Checkers(size);
+            for(int i=0;i<randomPlies;i++) {
+                MoveCollection moves = checkers.getValidTurns();
+                if(moves.isEmpty()) {
+                    break;
+                }
+                checkers.moveChip(moves.get(random.nextInt(moves.size())));
+            }
+        } while(checkers.getValidMoves().isEmpty());
+        return checkers;
+    }
+
+    /**
+     * Plays a game between the engines.
+     *
+     * @param opening   Board state to start from.
+     * @param engines   The engines of the first and second side.
+     * @param swap  0 if the first engine plays the player to move in the
+     * opening, 1 if the second does.
+     * @return  Outcome for the first engine.
+     */
+    private int play(Checkers opening, Engine[] engines, int swap)
+            throws IOException {
+        Checkers checkers = new Checkers(opening);
+        int firstPlayer = swap == 0 ? checkers.getCurrentPlayer() :
+                3 - checkers.getCurrentPlayer();
+        for(Engine engine: engines) {
+            engine.getTranspositionTable().clear();
+        }
+        Map<Long, Integer> seen = new HashMap<>();
+        List<Move> moves = new ArrayList<>();
+        int winner = 0;
+        for(int ply=0;ply<maxPlies;ply++) {
+            if(checkers.getValidMoves().isEmpty()) {
+                winner = 3 - checkers.getCurrentPlayer();
+                break;
+            }
+            if(seen.merge(checkers.getHash(), 1, Integer::sum) >=
+                    REPETITIONS) {
+                break;
+            }
+            int index = checkers.getCurrentPlayer() == firstPlayer ? 0 : 1;
+            Side side = sides[index];
+            Engine engine = engines[index];
+            long nodes = engine.getNodes();
+            long start = System.nanoTime();
+            Move move = side.time != null ?
+                    engine.search(checkers, Engine.MAX_DEPTH, side.time) :
+                    engine.search(checkers, side.depth, null);
+            side.nanos.add(System.nanoTime() - start);
+            side.nodes.add(engine.getNodes() - nodes);
+            side.moves.increment();
+            checkers.moveChip(move);
+            moves.add(move);
+        }
+        if(games != null) {
+            save(opening, moves, winner, firstPlayer);
+        }
+        return winner == 0 ? DRAW : winner == firstPlayer ? WIN : LOSS;
+    }
+
+    /**
+     * Writes a game to the game file.
+     *
+     * @param opening   Board state the engines started from.
+     * @param moves Turns made by the engines.
+     * @param winner    Player identifier of the winner, 0 for a draw.
+     * @param firstPlayer   Player identifier of the first engine.
+     * @throws IOException  If the game cannot be written.
+     */
+    private void save(Checkers opening, List<Move> moves, int winner,
+                      int firstPlayer) throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "Tournament");
+        tags.put("Black", "engine " + (firstPlayer == 1 ? 1 : 2) + " (" +
+                sides[firstPlayer == 1 ? 0 : 1] + ")");
+        tags.put("White", "engine " + (firstPlayer == 2 ? 1 : 2) + " (" +
+                sides[firstPlayer == 2 ? 0 : 1] + ")");
+        GameRecord record = new GameRecord(size,
+                Notation.formatPosition(opening), winner == 1 ?
+                GameRecord.Result.BLACK : winner == 2 ?
+                GameRecord.Result.WHITE : GameRecord.Result.DRAW, moves,
+                tags);
+        synchronized(games) {
+            games.write(record);
+        }
+    }
+
+    /**
+     * Adds a game outcome to the totals.
+     *
+     * @param outcome   Outcome for the first engine.
+     */
+    private void record(int outcome) {
+        (outcome == WIN ? wins : outcome == LOSS ? losses : draws)
+                .increment();
+    }
+
+    /**
+     * @return  Win, draw and loss counts of the first engine and the Elo
+     * difference they give.
+     */
+    private String getScoreLine() {
+        long w = wins.sum();
+        long d = draws.sum();
+        long l = losses.sum();
+        double[] elo = getElo(w, d, l);
+        return String.format("W %d D %d L %d, Elo %+.1f +/- %.1f", w, d, l,
+                elo[0], elo[1]);
+    }
+
+    /**
+     * Prints the final results.
+     */
+    public void report() {
+        System.out.println(getScoreLine());
+        for(int i=0;i<sides.length;i++) {
+            Side side = sides[i];
+            long moves = Math.max(side.moves.sum(), 1);
+            System.out.printf("engine %d (%s): %.2f ms/move, %.0f " +
+                            "nodes/move, %.0f nodes/s%n", i + 1, side,
+                    side.nanos.sum() / 1e6 / moves,
+                    (double) side.nodes.sum() / moves,
+                    side.nodes.sum() * 1e9 / Math.max(side.nanos.sum(), 1));
+        }
+    }
+
+    /**
+     * Estimates the Elo difference between the engines from the score of
+     * the first, with the half width of its 95% confidence interval from the
+     * standard error of the mean game score.
+     *
+     * @param wins  Games won by the first engine.
+     * @param draws Games drawn.
+     * @param losses    Games lost by the first engine.
+     * @return  Elo difference and error bar, infinite if either engine has
+     * scored every point.
+     */
+    static double[] getElo(long wins, long draws, long losses) {
+        long games = wins + draws + losses;
+        if(games == 0) {
+            return new double[] {0, Double.POSITIVE_INFINITY};
+        }
+        double score = (wins + draws / 2.0) / games;
+        double variance = (wins * Math.pow(1 - score, 2) +
+                draws * Math.pow(0.5 - score, 2) +
+                losses * Math.pow(score, 2)) / games;
+        double error = 1.96 * Math.sqrt(variance / games);
+        double elo = toElo(score);
+        double high = toElo(score + error);
+        double low = toElo(score - error);
+        return new double[] {elo, (high - low) / 2};
+    }
+
+    /**
+     * @param score Expected score between 0 and 1.
+     * @return  Elo difference giving the expected score.
+     */
+    private static double toElo(double score) {
+        if(score <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if(score >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Plays a tournament between two engine settings.
+     *
+     * Usage: Tournament [--games n] [--threads n] [--size n]
+     * [--random-plies n] [--max-plies n] [--seed n] [--hash mb]
+     * [--depth1 n] [--depth2 n] [--time1 ms] [--time2 ms]
+     * [--option1 name=bool] [--option2 name=bool] [--record file]
+     *
+     * A side with a time is searched for that long per move, otherwise to
+     * its depth. Options are the engine's search flags: hashMoveOrdering,
+     * killerMoves, historyHeuristic, quiescence and compositeMoves.
+     * Defaults are 1000 games on one thread per processor on the 8x8 board,
+     * 4 random plies, 300 max plies, depth 6 for both sides and 16 MB of
+     * hash per engine. With a record file every game is written to it,
+     * as portable draughts notation if its name ends in .pdn, otherwise in
+     * the binary format of {@link GameRecordWriter}.
+     *
+     * @param args  Command line arguments.
+     * @throws Exception    If a game fails.
+     */
+    public static void main(String[] args) throws Exception {
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int size = 8;
+        int randomPlies = 4;
+        int maxPlies = 300;
+        long seed = 1;
+        int hash = 16;
+        Side[] sides = {new Side(), new Side()};
+        Path record = null;
+        for(int i=0;i<args.length;i++) {
+            switch(args[i]) {
+                case "--games": games = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--size": size = Integer.parseInt(args[++i]); break;
+                case "--random-plies":
+                    randomPlies = Integer.parseInt(args[++i]); break;
+                case "--max-plies": maxPlies = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--hash": hash = Integer.parseInt(args[++i]); break;
+                case "--depth1": sides[0].depth = Integer.parseInt(args[++i]);
+                    break;
+                case "--depth2": sides[1].depth = Integer.parseInt(args[++i]);
+                    break;
+                case "--time1": sides[0].time = Duration.ofMillis(
+                        Long.parseLong(args[++i])); break;
+                case "--time2": sides[1].time = Duration.ofMillis(
+                        Long.parseLong(args[++i])); break;
+                case "--option1": sides[0].setOption(args[++i]); break;
+                case "--option2": sides[1].setOption(args[++i]); break;
+                case "--record": record = Paths.get(args[++i]); break;
+                default: throw new IllegalArgumentException(
+                        "Unknown argument " + args[i]);
+            }
+        }
+
+        Tournament tournament = new Tournament(size, randomPlies, maxPlies,
+                seed, hash, sides[0], sides[1]);
+        if(record != null) {
+            try(GameSink sink = GameArchive.create(record)) {
+                tournament.setGames(sink);
+                tournament.run(games, threads);
+            }
+        } else {
+            tournament.run(games, threads);
+        }
+        tournament.report();
+    }
+
+    /**
+     * Settings and move statistics of one engine in a tournament.
+     */
+    public static class Side {
+
+        /**
+         * The max depth for minimax when not searching on a time budget.
+         */
+        int depth = 6;
+
+        /**
+         * Time allowed per move, or null to search to the depth.
+         */
+        Duration time;
+
+        /**
+         * Search flags set on the engine, by name.
+         */
+        final Map<String, Boolean> options = new HashMap<>();
+
+        /**
+         * Moves made.
+         */
+        final LongAdder moves = new LongAdder();
+
+        /**
+         * Time spent searching in nanoseconds.
+         */
+        final LongAdder nanos = new LongAdder();
+
+        /**
+         * Nodes searched.
+         */
+        final LongAdder nodes = new LongAdder();
+
+        /**
+         * Engine settings searching to a depth.
+         *
+         * @param depth The max depth for minimax.
+         */
+        public Side(int depth) {
+            this.depth = depth;
+        }
+
+        /**
+         * Engine settings searching on a time budget.
+         *
+         * @param time  Time allowed per move.
+         */
+        public Side(Duration time) {
+            this.time = time;
+        }
+
+        /**
+         * Engine settings with the default depth.
+         */
+        public Side() {
+        }
+
+        /**
+         * Sets a search flag on the engine.
+         *
+         * @param option    Flag name and value, as name=true or name=false.
+         */
+        public void setOption(String option) {
+            int split = option.indexOf('=');
+            if(split < 0) {
+                throw new IllegalArgumentException("Expected name=value: " +
+                        option);
+            }
+            options.put(option.substring(0, split),
+                    Boolean.parseBoolean(option.substring(split + 1)));
+        }
+
+        @Override
+        public String toString() {
+            String limit = time != null ? time.toMillis() + " ms" :
+                    "depth " + depth;
+            return options.isEmpty() ? limit : limit + " " + options;
+        }
+    }
+}
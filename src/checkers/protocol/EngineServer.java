@@ -0,0 +1,175 @@
+package checkers.protocol;
+
+import checkers.Engine;
+import checkers.TranspositionTable;
+
+import javax.management.JMException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class EngineServer {
+
+    /**
+     * Number of search threads of each session's engine.
+     */
+    private final int threads;
+
+    /**
+     * Transposition table size of each session's engine in megabytes.
+     */
+    private final int hashMegabytes;
+
+    /**
+     * Directory of opening books to load, or null for none.
+     */
+    private final Path books;
+
+    /**
+     * Directory of tablebases to load, or null for none.
+     */
+    private final Path tablebases;
+
+    /**
+     * Serves the engine protocol of {@link EngineSession}, giving each
+     * session an engine of its own.
+     *
+     * @param threads   Number of search threads of each engine.
+     * @param hashMegabytes Transposition table size of each engine.
+     * @param books Directory of opening books to load, or null for none.
+     * @param tablebases    Directory of tablebases to load, or null for none.
+     */
+    public EngineServer(int threads, int hashMegabytes, Path books,
+                        Path tablebases) {
+        this.threads = threads;
+        this.hashMegabytes = hashMegabytes;
+        this.books = books;
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Serves a single session on standard input and output.
+     *
+     * @throws IOException  If engine data cannot be loaded.
+     */
+    public void serveConsole() throws IOException {
+        serve(new BufferedReader(new InputStreamReader(System.in,
+                StandardCharsets.UTF_8)), new PrintWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8)),
+                "console");
+    }
+
+    /**
+     * Accepts connections on a port of the loopback interface, serving a
+     * session on a thread of its own for each, until the process is killed.
+     *
+     * @param port  The port to listen on, 0 for any free port.
+     * @throws IOException  If the port cannot be listened on.
+     */
+    public void serveSocket(int port) throws IOException {
+        try(ServerSocket server = new ServerSocket(port, 50,
+                InetAddress.getLoopbackAddress())) {
+            System.err.println("Listening on " +
+                    server.getLocalSocketAddress());
+            while(true) {
+                Socket socket = server.accept();
+                Thread thread = new Thread(() -> {
+                    try(Socket s = socket) {
+                        serve(new BufferedReader(new InputStreamReader(
+                                s.getInputStream(), StandardCharsets.UTF_8)),
+                                new PrintWriter(new OutputStreamWriter(
+                                        s.getOutputStream(),
+                                        StandardCharsets.UTF_8)),
+                                "session-" + s.getPort());
+                    } catch(IOException e) {
+                        System.err.println("Session failed: " +
+                                e.getMessage());
+                    }
+                }, "checkers-session-" + socket.getPort());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    /**
+     * Serves a session with a new engine, shutting the engine down when the
+     * session ends. The engine's metrics are published through JMX for the
+     * length of the session.
+     *
+     * @param in    Commands from the client.
+     * @param out   Responses to the client.
+     * @param name  Name the engine's metrics are registered under.
+     * @throws IOException  If engine data cannot be loaded.
+     */
+    private void serve(BufferedReader in, PrintWriter out, String name)
+            throws IOException {
+        Engine engine = new Engine(threads,
+                TranspositionTable.ofMegabytes(hashMegabytes));
+        try {
+            try {
+                engine.getMetrics().register(name);
+            } catch(JMException e) {
+                System.err.println("Engine metrics not registered: " +
+                        e.getMessage());
+            }
+            if(books != null) {
+                engine.loadOpeningBooks(books);
+            }
+            if(tablebases != null) {
+                engine.loadTablebases(tablebases);
+            }
+            new EngineSession(engine, in, out).run();
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * Runs the engine as a separate process.
+     *
+     * Usage: EngineServer [--threads n] [--hash mb] [--books dir]
+     * [--tablebases dir] [--port n]
+     *
+     * Serves standard input and output unless a port is given. Threads
+     * default to one per processor and hash to 16 MB per session.
+     *
+     * @param args  Command line arguments.
+     * @throws IOException  If the port cannot be listened on or engine data
+     * cannot be loaded.
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hash = 16;
+        Path books = null;
+        Path tablebases = null;
+        int port = -1;
+        for(int i=0;i<args.length;i++) {
+            switch(args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--hash": hash = Integer.parseInt(args[++i]); break;
+                case "--books": books = Paths.get(args[++i]); break;
+                case "--tablebases": tablebases = Paths.get(args[++i]); break;
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException(
+                        "Unknown argument " + args[i]);
+            }
+        }
+
+        EngineServer server = new EngineServer(threads, hash, books,
+                tablebases);
+        if(port < 0) {
+            server.serveConsole();
+        } else {
+            server.serveSocket(port);
+        }
+    }
+}
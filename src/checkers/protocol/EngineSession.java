@@ -0,0 +1,302 @@
+package checkers.protocol;
+
+import checkers.CancellationToken;
+import checkers.Checkers;
+import checkers.Engine;
+import checkers.IntMove;
+import checkers.Move;
+import checkers.Notation;
+import checkers.SearchInfo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class EngineSession implements Runnable {
+
+    /**
+     * Engine searching for this session.
+     */
+    private final Engine engine;
+
+    /**
+     * Commands from the client.
+     */
+    private final BufferedReader in;
+
+    /**
+     * Responses to the client, written by the reading thread and the search
+     * thread under its own lock.
+     */
+    private final PrintWriter out;
+
+    /**
+     * The board state searches start from.
+     */
+    private Checkers position = new Checkers();
+
+    /**
+     * Token cancelling the running search.
+     */
+    private CancellationToken stop;
+
+    /**
+     * Completes once the running search has reported its best move, null if
+     * no search has been started.
+     */
+    private CompletableFuture<Void> search;
+
+    /**
+     * Serves the line based engine protocol to one client. Commands are read
+     * one per line and searches run on a thread of their own, so that a
+     * search can be stopped while it is running:
+     * <pre>
+     * position startpos [size] [moves m...]  set up the starting position
+     * position fen [moves m...]      set up a position, see {@link Notation}
+     * move m...                      make moves from the current position
+     * go [depth n] [movetime ms]     search, until stopped if neither given
+     * stop                           stop the search, reporting its best move
+     * setoption name true|false      set an engine search flag
+     * newgame                        clear the transposition table
+     * show                           reply position fen
+     * isready                        reply readyok
+     * quit                           end the session
+     * </pre>
+     * A search replies with an info line for each completed iteration and
+     * then the best move, or none if the player to move has lost:
+     * <pre>
+     * info depth 6 score 3 nodes 48211 nps 1204512 time 40 pv 22-18 11-15
+     * bestmove 22-18
+     * </pre>
+     * Commands that change the position stop any running search first.
+     * Invalid commands reply with an error line and are otherwise ignored.
+     *
+     * @param engine    Engine searching for this session.
+     * @param in    Commands from the client.
+     * @param out   Responses to the client.
+     */
+    public EngineSession(Engine engine, BufferedReader in, PrintWriter out) {
+        this.engine = engine;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Reads and handles commands until the client quits or closes the
+     * stream, then stops any running search.
+     */
+    @Override
+    public void run() {
+        try {
+            String line;
+            while((line = in.readLine()) != null) {
+                line = line.trim();
+                if(line.equals("quit")) {
+                    break;
+                }
+                if(!line.isEmpty()) {
+                    try {
+                        handle(line);
+                    } catch(IllegalArgumentException e) {
+                        send("error " + e.getMessage());
+                    }
+                }
+            }
+        } catch(IOException e) {
+            // The client has gone, end the session.
+        } finally {
+            stopSearch();
+        }
+    }
+
+    /**
+     * Handles a command.
+     *
+     * @param line  The command line.
+     * @throws IllegalArgumentException If the command is invalid.
+     */
+    private void handle(String line) {
+        String[] words = line.split("\\s+");
+        switch(words[0]) {
+            case "position":
+                setPosition(words);
+                break;
+            case "move":
+                List<Move> moves = Notation.parseMoves(position,
+                        join(words, 1, words.length));
+                stopSearch();
+                for(Move move: moves) {
+                    position.moveChip(move);
+                }
+                break;
+            case "go":
+                go(words);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "setoption":
+                setOption(words);
+                break;
+            case "newgame":
+                stopSearch();
+                engine.getTranspositionTable().clear();
+                break;
+            case "show":
+                send("position " + Notation.formatPosition(position));
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command " +
+                        words[0]);
+        }
+    }
+
+    /**
+     * Handles the position command.
+     *
+     * @param words The command words.
+     * @throws IllegalArgumentException If the position or a move is invalid.
+     */
+    private void setPosition(String[] words) {
+        if(words.length < 2) {
+            throw new IllegalArgumentException("Expected a position");
+        }
+        int moves = words.length;
+        for(int i=1;i<words.length;i++) {
+            if(words[i].equals("moves")) {
+                moves = i;
+            }
+        }
+        Checkers checkers;
+        if(words[1].equals("startpos")) {
+            int size = moves > 2 ? Integer.parseInt(words[2]) : 10;
+            if(size < 4 || size > IntMove.MAX_BOARD_SIZE || size % 2 != 0) {
+                throw new IllegalArgumentException("Invalid board size " +
+                        size);
+            }
+            checkers = new Checkers(size);
+        } else {
+            checkers = Notation.parsePosition(join(words, 1, moves));
+        }
+        for(Move move: Notation.parseMoves(checkers,
+                join(words, moves + 1, words.length))) {
+            checkers.moveChip(move);
+        }
+        stopSearch();
+        position = checkers;
+    }
+
+    /**
+     * Handles the go command, starting a search of the current position.
+     *
+     * @param words The command words.
+     * @throws IllegalArgumentException If a limit is malformed.
+     */
+    private void go(String[] words) {
+        int depth = Engine.MAX_DEPTH;
+        Duration budget = null;
+        for(int i=1;i<words.length;i++) {
+            if(i + 1 >= words.length) {
+                throw new IllegalArgumentException("Expected a value for " +
+                        words[i]);
+            }
+            switch(words[i]) {
+                case "depth": depth = Integer.parseInt(words[++i]); break;
+                case "movetime": budget = Duration.ofMillis(
+                        Long.parseLong(words[++i])); break;
+                default: throw new IllegalArgumentException("Unknown limit " +
+                        words[i]);
+            }
+        }
+        stopSearch();
+        Checkers board = new Checkers(position);
+        int maxDepth = depth;
+        Duration time = budget;
+        CancellationToken token = new CancellationToken();
+        stop = token;
+        search = CompletableFuture.runAsync(() -> {
+            Move move = engine.search(board, maxDepth, time, token,
+                    this::sendInfo);
+            send("bestmove " + (move != null ? Notation.formatMove(move) :
+                    "none"));
+        }).exceptionally(e -> {
+            send("error " + e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Handles the setoption command.
+     *
+     * @param words The command words.
+     * @throws IllegalArgumentException If the option is unknown.
+     */
+    private void setOption(String[] words) {
+        if(words.length != 3) {
+            throw new IllegalArgumentException("Expected a name and value");
+        }
+        boolean value = Boolean.parseBoolean(words[2]);
+        switch(words[1]) {
+            case "hashMoveOrdering": engine.setHashMoveOrdering(value); break;
+            case "killerMoves": engine.setKillerMoves(value); break;
+            case "historyHeuristic": engine.setHistoryHeuristic(value); break;
+            case "quiescence": engine.setQuiescence(value); break;
+            case "compositeMoves": engine.setCompositeMoves(value); break;
+            default: throw new IllegalArgumentException("Unknown option " +
+                    words[1]);
+        }
+    }
+
+    /**
+     * Stops any running search and waits for it to report its best move.
+     */
+    private void stopSearch() {
+        if(search != null) {
+            stop.cancel();
+            search.join();
+            search = null;
+        }
+    }
+
+    /**
+     * Reports a completed iteration of the running search.
+     *
+     * @param info  Progress of the search.
+     */
+    private void sendInfo(SearchInfo info) {
+        send(String.format("info depth %d score %d nodes %d nps %d time %d " +
+                        "pv %s", info.getDepth(), info.getScore(),
+                info.getNodes(), info.getNodesPerSecond(),
+                info.getTime().toMillis(),
+                Notation.formatMoves(info.getPrincipalVariation())));
+    }
+
+    /**
+     * Writes a line to the client.
+     *
+     * @param line  The response line.
+     */
+    private void send(String line) {
+        synchronized(out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    /**
+     * @param words Words to join.
+     * @param from  Index of the first word.
+     * @param to    Index after the last word.
+     * @return  The words separated by spaces.
+     */
+    private static String join(String[] words, int from, int to) {
+        return from >= to ? "" : String.join(" ", List.of(words)
+                .subList(from, to));
+    }
+}
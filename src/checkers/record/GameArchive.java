@@ -0,0 +1,120 @@
+package checkers.record;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public final class GameArchive {
+
+    /**
+     * Opens and creates game files in either format, chosen by file name:
+     * portable draughts notation for names ending in .pdn, otherwise the
+     * binary format of {@link GameRecordWriter}.
+     */
+    private GameArchive() {
+    }
+
+    /**
+     * Opens a game file for reading.
+     *
+     * @param file  The file.
+     * @return  Source reading the file's games in turn.
+     * @throws IOException  If the file cannot be opened.
+     */
+    public static GameSource open(Path file) throws IOException {
+        if(isPdn(file)) {
+            return new PdnReader(Files.newBufferedReader(file,
+                    StandardCharsets.UTF_8));
+        }
+        return new GameRecordReader(Files.newInputStream(file));
+    }
+
+    /**
+     * Creates a game file, replacing any existing file.
+     *
+     * @param file  The file.
+     * @return  Sink writing games to the file.
+     * @throws IOException  If the file cannot be created.
+     */
+    public static GameSink create(Path file) throws IOException {
+        if(isPdn(file)) {
+            return new PdnWriter(Files.newBufferedWriter(file,
+                    StandardCharsets.UTF_8));
+        }
+        return new GameRecordWriter(Files.newOutputStream(file));
+    }
+
+    /**
+     * @param file  The file.
+     * @return  True if the file holds portable draughts notation.
+     */
+    private static boolean isPdn(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".pdn");
+    }
+
+    /**
+     * Converts or summarises game files, one game at a time so that files
+     * of any size can be processed.
+     *
+     * Usage: GameArchive convert in out | GameArchive stats [--replay] in
+     *
+     * Convert copies every game of one file to another, each in the format
+     * given by its name. Stats counts the games, their results and moves;
+     * with --replay every game is also replayed to check that its moves can
+     * be made.
+     *
+     * @param args  Command line arguments.
+     * @throws IOException  If a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length == 3 && args[0].equals("convert")) {
+            long count = 0;
+            try(GameSource in = open(Paths.get(args[1]));
+                GameSink out = create(Paths.get(args[2]))) {
+                GameRecord record;
+                while((record = in.read()) != null) {
+                    out.write(record);
+                    count++;
+                }
+            }
+            System.out.println(count + " games converted");
+        } else if(args.length >= 2 && args[0].equals("stats")) {
+            boolean replay = args.length == 3 && args[1].equals("--replay");
+            long[] results = new long[GameRecord.Result.values().length];
+            long games = 0;
+            long moves = 0;
+            long positions = 0;
+            long start = System.nanoTime();
+            try(GameSource in = open(Paths.get(args[args.length - 1]))) {
+                GameRecord record;
+                while((record = in.read()) != null) {
+                    games++;
+                    results[record.getResult().ordinal()]++;
+                    moves += record.getMoves().size();
+                    if(replay) {
+                        GameReplay game = new GameReplay(record);
+                        while(game.hasNext()) {
+                            game.next();
+                            positions++;
+                        }
+                    }
+                }
+            }
+            System.out.printf("%d games, %.1f moves/game%n", games,
+                    games > 0 ? (double) moves / games : 0.0);
+            for(GameRecord.Result result: GameRecord.Result.values()) {
+                System.out.printf("%s %d%n", result.getText(),
+                        results[result.ordinal()]);
+            }
+            if(replay) {
+                System.out.printf("%d positions replayed%n", positions);
+            }
+            System.out.printf("%.1f s%n", (System.nanoTime() - start) / 1e9);
+        } else {
+            throw new IllegalArgumentException("Usage: GameArchive convert " +
+                    "in out | GameArchive stats [--replay] in");
+        }
+    }
+}
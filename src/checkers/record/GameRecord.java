@@ -0,0 +1,231 @@
+package checkers.record;
+
+import checkers.Checkers;
+import checkers.Move;
+import checkers.Notation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GameRecord {
+
+    /**
+     * Outcome of a recorded game.
+     */
+    public enum Result {
+
+        /**
+         * Unfinished or unknown.
+         */
+        UNKNOWN("*"),
+
+        /**
+         * Won by Black, player 1.
+         */
+        BLACK("2-0"),
+
+        /**
+         * Won by White, player 2.
+         */
+        WHITE("0-2"),
+
+        /**
+         * Drawn.
+         */
+        DRAW("1-1");
+
+        /**
+         * Result text in portable draughts notation.
+         */
+        private final String text;
+
+        /**
+         * @param text  Result text in portable draughts notation.
+         */
+        Result(String text) {
+            this.text = text;
+        }
+
+        /**
+         * @return  Result text in portable draughts notation, scored from the
+         * side of Black, which moves first.
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Parses a result in portable draughts notation, accepting both the
+         * draughts form, such as 2-0, and the chess form, such as 1-0.
+         *
+         * @param text  Result text.
+         * @return  The result, or null if the text is not a result.
+         */
+        public static Result parse(String text) {
+            switch(text) {
+                case "*": return UNKNOWN;
+                case "2-0": case "1-0": return BLACK;
+                case "0-2": case "0-1": return WHITE;
+                case "1-1": case "1/2-1/2": return DRAW;
+                default: return null;
+            }
+        }
+    }
+
+    /**
+     * The dimensions of the board.
+     */
+    private final int size;
+
+    /**
+     * Board state the game started from, see {@link Notation}, or null for
+     * the standard starting position.
+     */
+    private final String startPosition;
+
+    /**
+     * Outcome of the game.
+     */
+    private final Result result;
+
+    /**
+     * Turns made, each with the later legs of a multi-jump linked through
+     * {@link Move#getNext()}.
+     */
+    private final List<Move> moves;
+
+    /**
+     * Descriptive tags such as Event, White and Black, in order.
+     */
+    private final Map<String, String> tags;
+
+    /**
+     * A finished or unfinished game: the board it was played on, the moves
+     * made and its result. Records are immutable, built once a game is
+     * known and replayed with {@link GameReplay}.
+     *
+     * @param size  The dimensions of the board.
+     * @param startPosition Board state the game started from, or null for
+     * the standard starting position.
+     * @param result    Outcome of the game.
+     * @param moves Turns made, each either whole or as single legs.
+     * @param tags  Descriptive tags, in order, or null for none.
+     */
+    public GameRecord(int size, String startPosition, Result result,
+                      List<Move> moves, Map<String, String> tags) {
+        if(size < 4 || size % 2 != 0) {
+            throw new IllegalArgumentException("Invalid board size " + size);
+        }
+        this.size = size;
+        this.startPosition = startPosition;
+        this.result = result;
+        this.moves = Collections.unmodifiableList(joinLegs(moves));
+        this.tags = Collections.unmodifiableMap(tags != null ?
+                new LinkedHashMap<>(tags) : new LinkedHashMap<>());
+    }
+
+    /**
+     * @return  The dimensions of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return  Board state the game started from, see {@link Notation}, or
+     * null for the standard starting position.
+     */
+    public String getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * @return  Outcome of the game.
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * @return  Turns made, each with the later legs of a multi-jump linked
+     * through {@link Move#getNext()}.
+     */
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return  Descriptive tags such as Event, White and Black, in order.
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return  A new board in the state the game started from.
+     */
+    public Checkers getInitialPosition() {
+        return startPosition != null ? Notation.parsePosition(startPosition) :
+                new Checkers(size);
+    }
+
+    /**
+     * @return  Number of legs of all the turns made, one per jump of a
+     * multi-jump.
+     */
+    public int getLegCount() {
+        int count = 0;
+        for(Move move: moves) {
+            for(Move leg=move;leg!=null;leg=leg.getNext()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Joins single legs of multi-jumps into whole turns. A capture starting
+     * on the cell the previous capture landed on continues the same turn,
+     * as the opponent can have no chip there.
+     *
+     * @param moves Moves, each either a whole turn or a single leg.
+     * @return  Whole turns.
+     */
+    static List<Move> joinLegs(List<Move> moves) {
+        List<Move> turns = new ArrayList<>(moves.size());
+        List<Move> legs = new ArrayList<>();
+        for(Move move: moves) {
+            for(Move leg=move;leg!=null;leg=leg.getNext()) {
+                Move last = legs.isEmpty() ? null : legs.get(legs.size() - 1);
+                if(last != null && !(last.isCapture() && leg.isCapture() &&
+                        leg.getStart() == last.getDest())) {
+                    turns.add(link(legs));
+                    legs.clear();
+                }
+                legs.add(leg);
+            }
+        }
+        if(!legs.isEmpty()) {
+            turns.add(link(legs));
+        }
+        return turns;
+    }
+
+    /**
+     * @param legs  Legs of one turn, in order.
+     * @return  The first leg with the others linked through
+     * {@link Move#getNext()}.
+     */
+    private static Move link(List<Move> legs) {
+        Move move = null;
+        for(int i=legs.size()-1;i>=0;i--) {
+            Move leg = legs.get(i);
+            move = new Move(leg.getStart(), leg.getDest(), leg.getCaptured(),
+                    move);
+        }
+        return move;
+    }
+}
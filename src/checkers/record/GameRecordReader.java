@@ -0,0 +1,172 @@
+package checkers.record;
+
+import checkers.BoardGeometry;
+import checkers.IntMove;
+import checkers.Move;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GameRecordReader implements GameSource {
+
+    /**
+     * Longest start position accepted in bytes, guarding against corrupt
+     * archives, enough for any board of up to {@link IntMove#MAX_BOARD_SIZE}.
+     */
+    private static final int MAX_POSITION_LENGTH = 8192;
+
+    /**
+     * The archive being read.
+     */
+    private final InputStream in;
+
+    /**
+     * Number of games read so far.
+     */
+    private long count;
+
+    /**
+     * Reads games one at a time from an archive written by
+     * {@link GameRecordWriter}, so that archives larger than memory can be
+     * scanned.
+     *
+     * @param in    The stream to read from, closed with the reader.
+     * @throws IOException  If the stream cannot be read or is not an archive.
+     */
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in, 1 << 16);
+        byte[] magic = new byte[GameRecordWriter.MAGIC.length];
+        for(int i=0;i<magic.length;i++) {
+            magic[i] = (byte) readByte();
+        }
+        if(!Arrays.equals(magic, GameRecordWriter.MAGIC)) {
+            throw new IOException("Not a game archive");
+        }
+        int version = readByte();
+        if(version != GameRecordWriter.VERSION) {
+            throw new IOException("Unsupported archive version " + version);
+        }
+    }
+
+    /**
+     * @return  Number of games read so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return  The game, or null at the end of the archive.
+     * @throws IOException  If the stream cannot be read or the game is
+     * malformed.
+     */
+    @Override
+    public GameRecord read() throws IOException {
+        int first = in.read();
+        if(first < 0) {
+            return null;
+        }
+        int size = readVarint(first);
+        if(size < 4 || size > IntMove.MAX_BOARD_SIZE || size % 2 != 0) {
+            throw new IOException("Invalid board size " + size + " in game " +
+                    (count + 1));
+        }
+        int flags = readByte();
+        String start = null;
+        if((flags & GameRecordWriter.FLAG_START_POSITION) != 0) {
+            int length = readVarint(readByte());
+            if(length < 0 || length > MAX_POSITION_LENGTH) {
+                throw new IOException("Invalid start position length " +
+                        length + " in game " + (count + 1));
+            }
+            byte[] text = new byte[length];
+            for(int i=0;i<text.length;i++) {
+                text[i] = (byte) readByte();
+            }
+            start = new String(text, StandardCharsets.UTF_8);
+        }
+        GameRecord.Result result = GameRecord.Result.values()[
+                flags & GameRecordWriter.RESULT_MASK];
+
+        BoardGeometry geometry = BoardGeometry.forSize(size);
+        int cells = size * size / 2;
+        int legs = readVarint(readByte());
+        List<Move> moves = new ArrayList<>(Math.min(legs, 1024));
+        for(int i=0;i<legs;i++) {
+            int value = readVarint(readByte());
+            int from = value / cells;
+            int to = value % cells;
+            if(value < 0 || from >= cells) {
+                throw new IOException("Invalid move in game " + (count + 1));
+            }
+            moves.add(new Move(from, to, getCaptured(geometry, from, to)));
+        }
+        count++;
+        return new GameRecord(size, start, result, moves, null);
+    }
+
+    /**
+     * Finds the cell jumped over by a leg.
+     *
+     * @param geometry  Geometry of the board.
+     * @param from  The start cell.
+     * @param to    The destination cell.
+     * @return  Cell jumped over, or -1 if the leg is a step.
+     */
+    private static int getCaptured(BoardGeometry geometry, int from, int to) {
+        for(int d=0;d<BoardGeometry.DIRECTIONS;d++) {
+            if(geometry.jump(from, d) == to) {
+                return geometry.step(from, d);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @param first The first byte, already read.
+     * @return  The value.
+     * @throws IOException  If the stream cannot be read or ends early.
+     */
+    private int readVarint(int first) throws IOException {
+        int value = first & 0x7F;
+        int shift = 7;
+        int b = first;
+        while((b & 0x80) != 0) {
+            if(shift > 28) {
+                throw new IOException("Malformed varint in game " +
+                        (count + 1));
+            }
+            b = readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    /**
+     * @return  The next byte.
+     * @throws IOException  If the stream cannot be read or ends early.
+     */
+    private int readByte() throws IOException {
+        int b = in.read();
+        if(b < 0) {
+            throw new EOFException("Truncated game archive");
+        }
+        return b;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
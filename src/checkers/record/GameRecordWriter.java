@@ -0,0 +1,116 @@
+package checkers.record;
+
+import checkers.Move;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class GameRecordWriter implements GameSink {
+
+    /**
+     * Bytes every archive starts with.
+     */
+    static final byte[] MAGIC = {'C', 'K', 'G', 'R'};
+
+    /**
+     * Version of the format written.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Header flag set when the game has a start position.
+     */
+    static final int FLAG_START_POSITION = 4;
+
+    /**
+     * Mask of the result in the header flags.
+     */
+    static final int RESULT_MASK = 3;
+
+    /**
+     * The archive being written.
+     */
+    private final OutputStream out;
+
+    /**
+     * Writes games to an archive in a compact binary format, one after
+     * another so that archives of any length can be written and read as a
+     * stream. The archive starts with the bytes CKGR and a version byte,
+     * then each game is written as:
+     * <pre>
+     * varint   board size
+     * byte     flags: result in bits 0-1, start position present in bit 2
+     * varint   start position length, if present
+     * bytes    start position in UTF-8, see {@link checkers.Notation}
+     * varint   number of legs
+     * varint   each leg as start cell * cells + destination cell
+     * </pre>
+     * Varints are unsigned, seven bits per byte with the high bit set on
+     * all but the last, so a leg on boards of up to 10x10 takes at most two
+     * bytes. Captured cells are not stored as the geometry gives them, nor
+     * are tags.
+     *
+     * @param out   The stream to write to, closed with the writer.
+     * @throws IOException  If the stream cannot be written.
+     */
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = new BufferedOutputStream(out, 1 << 16);
+        this.out.write(MAGIC);
+        this.out.write(VERSION);
+    }
+
+    /**
+     * Writes a game.
+     *
+     * @param record    The game.
+     * @throws IOException  If the stream cannot be written.
+     */
+    @Override
+    public void write(GameRecord record) throws IOException {
+        int cells = record.getSize() * record.getSize() / 2;
+        int flags = record.getResult().ordinal();
+        byte[] start = null;
+        if(record.getStartPosition() != null) {
+            start = record.getStartPosition().getBytes(StandardCharsets.UTF_8);
+            flags |= FLAG_START_POSITION;
+        }
+        writeVarint(record.getSize());
+        out.write(flags);
+        if(start != null) {
+            writeVarint(start.length);
+            out.write(start);
+        }
+        writeVarint(record.getLegCount());
+        for(Move move: record.getMoves()) {
+            for(Move leg=move;leg!=null;leg=leg.getNext()) {
+                writeVarint(leg.getStart() * cells + leg.getDest());
+            }
+        }
+    }
+
+    /**
+     * Writes an unsigned varint.
+     *
+     * @param value The non-negative value.
+     * @throws IOException  If the stream cannot be written.
+     */
+    private void writeVarint(int value) throws IOException {
+        while((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,103 @@
+package checkers.record;
+
+import checkers.Checkers;
+import checkers.Move;
+
+import java.util.NoSuchElementException;
+
+public class GameReplay {
+
+    /**
+     * The game being replayed.
+     */
+    private final GameRecord record;
+
+    /**
+     * Board state after the turns replayed so far.
+     */
+    private Checkers position;
+
+    /**
+     * Number of turns replayed so far.
+     */
+    private int ply;
+
+    /**
+     * Steps through the board states of a recorded game, making each turn
+     * with {@link Checkers#moveChip(Move)} as the game did. Turns are not
+     * checked for validity, records read by this package having been
+     * played by the rules.
+     *
+     * @param record    The game to replay.
+     */
+    public GameReplay(GameRecord record) {
+        this.record = record;
+        this.position = record.getInitialPosition();
+    }
+
+    /**
+     * @return  The game being replayed.
+     */
+    public GameRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * @return  Board state after the turns replayed so far. Changed by
+     * later calls, copy it to keep it.
+     */
+    public Checkers getPosition() {
+        return position;
+    }
+
+    /**
+     * @return  Number of turns replayed so far.
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * @return  True if turns remain to be replayed.
+     */
+    public boolean hasNext() {
+        return ply < record.getMoves().size();
+    }
+
+    /**
+     * Makes the next turn.
+     *
+     * @return  The turn made.
+     * @throws NoSuchElementException   If every turn has been replayed.
+     */
+    public Move next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException("End of game");
+        }
+        Move move = record.getMoves().get(ply++);
+        position.moveChip(move);
+        return move;
+    }
+
+    /**
+     * Moves to the board state after a number of turns, replaying from the
+     * start if it is earlier than the current one.
+     *
+     * @param target    Number of turns from the start.
+     * @return  Board state after the turns.
+     * @throws IndexOutOfBoundsException    If the game has fewer turns.
+     */
+    public Checkers seek(int target) {
+        if(target < 0 || target > record.getMoves().size()) {
+            throw new IndexOutOfBoundsException("No ply " + target);
+        }
+        if(target < ply) {
+            position = record.getInitialPosition();
+            ply = 0;
+        }
+        while(ply < target) {
+            next();
+        }
+        return position;
+    }
+}
@@ -0,0 +1,16 @@
+package checkers.record;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+public interface GameSink extends Closeable, Flushable {
+
+    /**
+     * Writes a game.
+     *
+     * @param record    The game.
+     * @throws IOException  If the game cannot be written.
+     */
+    void write(GameRecord record) throws IOException;
+}
@@ -0,0 +1,16 @@
+package checkers.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface GameSource extends Closeable {
+
+    /**
+     * Reads the next game.
+     *
+     * @return  The game, or null at the end of the source.
+     * @throws IOException  If the source cannot be read or the game is
+     * malformed.
+     */
+    GameRecord read() throws IOException;
+}
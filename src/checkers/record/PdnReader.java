@@ -0,0 +1,321 @@
+package checkers.record;
+
+import checkers.Checkers;
+import checkers.Move;
+import checkers.Notation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PdnReader implements GameSource {
+
+    /**
+     * Board size of games without a GameType tag giving one.
+     */
+    private static final int DEFAULT_SIZE = 10;
+
+    /**
+     * The text being read.
+     */
+    private final Reader in;
+
+    /**
+     * Character read ahead, or -2 if none.
+     */
+    private int peeked = -2;
+
+    /**
+     * Number of games read so far.
+     */
+    private long count;
+
+    /**
+     * Reads games one at a time from portable draughts notation, so that
+     * collections larger than memory can be converted or scanned. Tags,
+     * move numbers and results are read, while comments, variations and
+     * annotations are skipped. Moves are checked against the rules as they
+     * are read, and may be given whole or leg by leg.
+     *
+     * @param in    The text to read from, closed with the reader.
+     */
+    public PdnReader(Reader in) {
+        this.in = new BufferedReader(in, 1 << 16);
+    }
+
+    /**
+     * @return  Number of games read so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return  The game, or null at the end of the text.
+     * @throws IOException  If the text cannot be read or the game is
+     * malformed or has an invalid move.
+     */
+    @Override
+    public GameRecord read() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> tokens = new ArrayList<>();
+        GameRecord.Result result = null;
+        int c;
+        while((c = skipSpace()) >= 0) {
+            if(c == '[') {
+                if(!tokens.isEmpty()) {
+                    break;
+                }
+                next();
+                readTag(tags);
+            } else if(c == '{') {
+                next();
+                skipTo('}');
+            } else if(c == ';') {
+                next();
+                skipTo('\n');
+            } else if(c == '(') {
+                next();
+                skipVariation();
+            } else {
+                String token = readToken();
+                if(token.isEmpty()) {
+                    next();
+                    continue;
+                }
+                result = GameRecord.Result.parse(token);
+                if(result != null) {
+                    break;
+                }
+                tokens.add(token);
+            }
+        }
+        if(tags.isEmpty() && tokens.isEmpty() && result == null) {
+            return null;
+        }
+        count++;
+        try {
+            return toRecord(tags, tokens, result);
+        } catch(IllegalArgumentException e) {
+            throw new IOException("Game " + count + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Builds a game from its tags and move text, replaying the moves to
+     * check them.
+     *
+     * @param tags  Tags read.
+     * @param tokens    Move text tokens other than the result.
+     * @param result    Result ending the move text, or null if none.
+     * @return  The game.
+     * @throws IllegalArgumentException If a tag or move is invalid.
+     */
+    private static GameRecord toRecord(Map<String, String> tags,
+                                       List<String> tokens,
+                                       GameRecord.Result result) {
+        int size = DEFAULT_SIZE;
+        String type = tags.get("GameType");
+        if(type != null) {
+            String[] fields = type.split(",");
+            if(fields.length >= 3) {
+                size = Integer.parseInt(fields[2].trim());
+            } else {
+                size = getTypeSize(Integer.parseInt(fields[0].trim()));
+            }
+        }
+        String start = null;
+        String fen = tags.get("FEN");
+        if(fen != null) {
+            start = fromFen(fen, size);
+        }
+        if(result == null) {
+            result = GameRecord.Result.parse(tags.getOrDefault("Result",
+                    "*"));
+            if(result == null) {
+                result = GameRecord.Result.UNKNOWN;
+            }
+        }
+        tags.remove("GameType");
+        tags.remove("FEN");
+        tags.remove("Result");
+
+        Checkers position = start != null ? Notation.parsePosition(start) :
+                new Checkers(size);
+        List<Move> moves = new ArrayList<>();
+        for(String token: tokens) {
+            int dot = token.lastIndexOf('.');
+            String text = token.substring(dot + 1).replaceAll("[!?]+$", "");
+            if(text.isEmpty() || text.startsWith("$")) {
+                continue;
+            }
+            Move move = Notation.parseMove(position, text);
+            position.moveChip(move);
+            moves.add(move);
+        }
+        return new GameRecord(size, start, result, moves, tags);
+    }
+
+    /**
+     * @param type  Game type number of a GameType tag.
+     * @return  The board size of the game type, or the default size if the
+     * type is unknown or not played on a square board.
+     */
+    static int getTypeSize(int type) {
+        switch(type) {
+            case 20: case 40: return 10;
+            case 21: case 22: case 23: case 24: case 25: case 26: case 28:
+            case 29: case 30: case 31: return 8;
+            case 27: return 12;
+            default: return DEFAULT_SIZE;
+        }
+    }
+
+    /**
+     * Converts a FEN tag value to a board state for {@link Notation},
+     * inserting the board size unless it is already given.
+     *
+     * @param fen   FEN tag value.
+     * @param size  The dimensions of the board.
+     * @return  Board state text.
+     */
+    static String fromFen(String fen, int size) {
+        String[] fields = fen.trim().split(":", 2);
+        if(fields.length == 2 && !fields[1].isEmpty() &&
+                Character.isDigit(fields[1].charAt(0))) {
+            return fen.trim();
+        }
+        return fields[0] + ":" + size + (fields.length == 2 ? ":" +
+                fields[1] : "");
+    }
+
+    /**
+     * Reads a tag pair, the opening bracket already read.
+     *
+     * @param tags  Tags to add it to.
+     * @throws IOException  If the text cannot be read or ends early.
+     */
+    private void readTag(Map<String, String> tags) throws IOException {
+        StringBuilder name = new StringBuilder();
+        int c;
+        while((c = next()) >= 0 && !Character.isWhitespace(c) && c != '"' &&
+                c != ']') {
+            name.append((char) c);
+        }
+        while(c >= 0 && c != '"' && c != ']') {
+            c = next();
+        }
+        StringBuilder value = new StringBuilder();
+        if(c == '"') {
+            while((c = next()) >= 0 && c != '"') {
+                if(c == '\\') {
+                    c = next();
+                }
+                value.append((char) c);
+            }
+            while(c >= 0 && c != ']') {
+                c = next();
+            }
+        }
+        if(c < 0) {
+            throw new IOException("Unterminated tag " + name);
+        }
+        tags.put(name.toString(), value.toString());
+    }
+
+    /**
+     * Reads a token of move text up to the next space or special character.
+     *
+     * @return  The token.
+     * @throws IOException  If the text cannot be read.
+     */
+    private String readToken() throws IOException {
+        StringBuilder token = new StringBuilder();
+        int c;
+        while((c = peek()) >= 0 && !Character.isWhitespace(c) &&
+                "[]{}();".indexOf(c) < 0) {
+            token.append((char) next());
+        }
+        return token.toString();
+    }
+
+    /**
+     * Skips a variation, the opening parenthesis already read, along with
+     * any variations and comments nested in it.
+     *
+     * @throws IOException  If the text cannot be read.
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int c;
+        while(depth > 0 && (c = next()) >= 0) {
+            if(c == '(') {
+                depth++;
+            } else if(c == ')') {
+                depth--;
+            } else if(c == '{') {
+                skipTo('}');
+            }
+        }
+    }
+
+    /**
+     * Skips text up to and including a character.
+     *
+     * @param end   The character.
+     * @throws IOException  If the text cannot be read.
+     */
+    private void skipTo(int end) throws IOException {
+        int c;
+        while((c = next()) >= 0 && c != end) {
+            // Skip.
+        }
+    }
+
+    /**
+     * Skips white space.
+     *
+     * @return  The next character without consuming it, or -1 at the end of
+     * the text.
+     * @throws IOException  If the text cannot be read.
+     */
+    private int skipSpace() throws IOException {
+        int c;
+        while((c = peek()) >= 0 && Character.isWhitespace(c)) {
+            next();
+        }
+        return c;
+    }
+
+    /**
+     * @return  The next character without consuming it, or -1 at the end.
+     * @throws IOException  If the text cannot be read.
+     */
+    private int peek() throws IOException {
+        if(peeked == -2) {
+            peeked = in.read();
+        }
+        return peeked;
+    }
+
+    /**
+     * @return  The next character, or -1 at the end.
+     * @throws IOException  If the text cannot be read.
+     */
+    private int next() throws IOException {
+        int c = peek();
+        peeked = -2;
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,145 @@
+package checkers.record;
+
+import checkers.Checkers;
+import checkers.Move;
+import checkers.Notation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+public class PdnWriter implements GameSink {
+
+    /**
+     * Longest line of move text written.
+     */
+    private static final int LINE_LENGTH = 79;
+
+    /**
+     * The text being written.
+     */
+    private final Writer out;
+
+    /**
+     * Writes games as portable draughts notation, one after another. Each
+     * game is written with its tags, a GameType tag giving the board size,
+     * a FEN tag if it did not start from the standard starting position,
+     * and its move text wrapped to 79 columns. Cells are numbered as in
+     * {@link Notation}, and results are scored from the side of Black,
+     * which moves first.
+     *
+     * @param out   The text to write to, closed with the writer.
+     */
+    public PdnWriter(Writer out) {
+        this.out = new BufferedWriter(out, 1 << 16);
+    }
+
+    /**
+     * Writes a game.
+     *
+     * @param record    The game.
+     * @throws IOException  If the text cannot be written.
+     */
+    @Override
+    public void write(GameRecord record) throws IOException {
+        for(Map.Entry<String, String> tag: record.getTags().entrySet()) {
+            String name = tag.getKey();
+            if(!name.equals("Result") && !name.equals("GameType") &&
+                    !name.equals("FEN")) {
+                writeTag(name, tag.getValue());
+            }
+        }
+        writeTag("Result", record.getResult().getText());
+        int size = record.getSize();
+        writeTag("GameType", "20,B," + size + "," + size + ",N2,0");
+        if(record.getStartPosition() != null) {
+            writeTag("FEN", toFen(record.getStartPosition()));
+        }
+        out.write('\n');
+
+        Checkers position = record.getInitialPosition();
+        int number = 1;
+        StringBuilder line = new StringBuilder();
+        boolean first = true;
+        for(Move move: record.getMoves()) {
+            String text = Notation.formatMove(move);
+            if(position.getCurrentPlayer() == 1) {
+                text = number + ". " + text;
+            } else if(first) {
+                text = number + "... " + text;
+            }
+            if(position.getCurrentPlayer() == 2) {
+                number++;
+            }
+            position.moveChip(move);
+            append(line, text);
+            first = false;
+        }
+        append(line, record.getResult().getText());
+        out.write(line.toString());
+        out.write("\n\n");
+    }
+
+    /**
+     * Converts a board state written by {@link Notation} to a FEN tag value,
+     * which leaves the board size to the GameType tag.
+     *
+     * @param position  Board state text.
+     * @return  FEN tag value.
+     */
+    static String toFen(String position) {
+        String[] fields = position.split(":");
+        StringBuilder fen = new StringBuilder(fields[0]);
+        for(int i=2;i<fields.length;i++) {
+            fen.append(':').append(fields[i]);
+        }
+        return fen.toString();
+    }
+
+    /**
+     * Appends a token to the move text, writing out the line first if the
+     * token does not fit on it.
+     *
+     * @param line  Move text not yet written.
+     * @param text  The token.
+     * @throws IOException  If the text cannot be written.
+     */
+    private void append(StringBuilder line, String text) throws IOException {
+        if(line.length() > 0 && line.length() + 1 + text.length() >
+                LINE_LENGTH) {
+            out.write(line.toString());
+            out.write('\n');
+            line.setLength(0);
+        }
+        if(line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(text);
+    }
+
+    /**
+     * Writes a tag pair.
+     *
+     * @param name  Tag name.
+     * @param value Tag value, quotes and backslashes escaped when written.
+     * @throws IOException  If the text cannot be written.
+     */
+    private void writeTag(String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
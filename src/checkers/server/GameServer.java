@@ -0,0 +1,137 @@
+package checkers.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class GameServer {
+
+    /**
+     * Runs the engine's searches for every session.
+     */
+    private final SearchScheduler scheduler;
+
+    /**
+     * Counters updated by every session.
+     */
+    private final ServerMetrics metrics;
+
+    /**
+     * Limits applied to every game.
+     */
+    private final GameSession.Limits limits;
+
+    /**
+     * Hosts many concurrent games against the engine in one process. Each
+     * session runs on a virtual thread of its own, which costs little while
+     * it waits for its client or for a search, and every search runs on the
+     * bounded pool of the scheduler.
+     *
+     * @param scheduler Runs the engine's searches.
+     * @param metrics   Counters updated by every session.
+     * @param limits    Limits applied to every game.
+     */
+    public GameServer(SearchScheduler scheduler, ServerMetrics metrics,
+                      GameSession.Limits limits) {
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.limits = limits;
+    }
+
+    /**
+     * Accepts connections until the server socket is closed, starting a
+     * session on a new virtual thread for each.
+     *
+     * @param server    The listening socket.
+     * @throws IOException  If accepting a connection fails.
+     */
+    public void serve(ServerSocket server) throws IOException {
+        try(ExecutorService sessions =
+                    Executors.newVirtualThreadPerTaskExecutor()) {
+            while(!server.isClosed()) {
+                Socket socket = server.accept();
+                sessions.execute(new GameSession(socket, scheduler, metrics,
+                        limits));
+            }
+        }
+    }
+
+    /**
+     * Runs the game server.
+     *
+     * Usage: GameServer [--port n] [--bind address] [--threads n]
+     * [--hash mb] [--game-time ms] [--move-time ms] [--max-plies n]
+     * [--max-size n] [--idle-timeout s] [--report s]
+     *
+     * Listens on port 47100 of the loopback interface with a search thread
+     * per processor and 4 MB of hash each. By default the engine has 60 s
+     * per game and at most 1 s per move, games are drawn after 400 moves,
+     * boards are at most 16x16, idle sessions are closed after 300 s and
+     * metrics are printed every 10 s.
+     *
+     * @param args  Command line arguments.
+     * @throws IOException  If the port cannot be listened on.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 47100;
+        InetAddress bind = InetAddress.getLoopbackAddress();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hash = 4;
+        long gameTime = 60000;
+        long moveTime = 1000;
+        int maxPlies = 400;
+        int maxSize = 16;
+        long idleTimeout = 300;
+        long report = 10;
+        for(int i=0;i<args.length;i++) {
+            switch(args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--bind": bind = InetAddress.getByName(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--hash": hash = Integer.parseInt(args[++i]); break;
+                case "--game-time": gameTime = Long.parseLong(args[++i]);
+                    break;
+                case "--move-time": moveTime = Long.parseLong(args[++i]);
+                    break;
+                case "--max-plies": maxPlies = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-size": maxSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--idle-timeout": idleTimeout = Long.parseLong(args[++i]);
+                    break;
+                case "--report": report = Long.parseLong(args[++i]); break;
+                default: throw new IllegalArgumentException(
+                        "Unknown argument " + args[i]);
+            }
+        }
+
+        ServerMetrics metrics = new ServerMetrics();
+        SearchScheduler scheduler = new SearchScheduler(threads, hash,
+                metrics);
+        GameSession.Limits limits = new GameSession.Limits(
+                Duration.ofMillis(gameTime), Duration.ofMillis(moveTime),
+                maxPlies, maxSize, Duration.ofSeconds(idleTimeout));
+        ScheduledExecutorService reporter =
+                Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "checkers-metrics");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        reporter.scheduleAtFixedRate(() -> System.err.println(
+                metrics.report()), report, report, TimeUnit.SECONDS);
+        try(ServerSocket server = new ServerSocket(port, 1024, bind)) {
+            System.err.println("Listening on " +
+                    server.getLocalSocketAddress());
+            new GameServer(scheduler, metrics, limits).serve(server);
+        } finally {
+            reporter.shutdownNow();
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package checkers.server;
+
+import checkers.Checkers;
+import checkers.Move;
+import checkers.Notation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+public class GameSession implements Runnable {
+
+    /**
+     * Number of moves the remaining game time is spread over.
+     */
+    private static final int MOVES_TO_GO = 20;
+
+    /**
+     * The client connection.
+     */
+    private final Socket socket;
+
+    /**
+     * Runs the engine's searches.
+     */
+    private final SearchScheduler scheduler;
+
+    /**
+     * Counters updated as the session plays.
+     */
+    private final ServerMetrics metrics;
+
+    /**
+     * Limits applied to every game of the session.
+     */
+    private final Limits limits;
+
+    /**
+     * Responses to the client.
+     */
+    private PrintWriter out;
+
+    /**
+     * The game in progress, or null if none.
+     */
+    private Checkers checkers;
+
+    /**
+     * Player identifier of the engine in the game in progress.
+     */
+    private int enginePlayer;
+
+    /**
+     * Search time the engine has left in the game in progress.
+     */
+    private Duration remaining;
+
+    /**
+     * Moves made in the game in progress.
+     */
+    private int plies;
+
+    /**
+     * One client playing games against the engine over a line based
+     * protocol, on a thread of its own. Searches are queued on the shared
+     * scheduler, so the session's thread, typically a virtual thread, only
+     * waits for I/O and for its searches:
+     * <pre>
+     * new [size] [black|white] [time ms]  start a game as the colour given,
+     *                                     the engine replying first if it
+     *                                     is to move
+     * move m                              make a move, see {@link Notation}
+     * board                               reply position fen
+     * stats                               reply server counters
+     * quit                                end the session
+     * </pre>
+     * The server replies to new with game and the position, to each move
+     * the engine makes with move, and once a game ends with gameover black,
+     * white or draw. Invalid commands reply with an error line.
+     *
+     * @param socket    The client connection.
+     * @param scheduler Runs the engine's searches.
+     * @param metrics   Counters updated as the session plays.
+     * @param limits    Limits applied to every game of the session.
+     */
+    public GameSession(Socket socket, SearchScheduler scheduler,
+                       ServerMetrics metrics, Limits limits) {
+        this.socket = socket;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.limits = limits;
+    }
+
+    /**
+     * Reads and handles commands until the client quits, closes the
+     * connection or stays idle for longer than the idle timeout.
+     */
+    @Override
+    public void run() {
+        metrics.sessionOpened();
+        try(Socket s = socket) {
+            s.setSoTimeout((int) limits.idleTimeout.toMillis());
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                    s.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(),
+                    StandardCharsets.UTF_8));
+            send("ready");
+            try {
+                String line;
+                while((line = in.readLine()) != null) {
+                    line = line.trim();
+                    if(line.equals("quit")) {
+                        break;
+                    }
+                    if(!line.isEmpty()) {
+                        try {
+                            handle(line.split("\\s+"));
+                        } catch(IllegalArgumentException e) {
+                            send("error " + e.getMessage());
+                        }
+                    }
+                }
+            } catch(SocketTimeoutException e) {
+                send("error idle timeout");
+            }
+        } catch(IOException e) {
+            // The client has gone, end the session.
+        } finally {
+            metrics.sessionClosed();
+        }
+    }
+
+    /**
+     * Handles a command.
+     *
+     * @param words The command words.
+     * @throws IllegalArgumentException If the command is invalid.
+     */
+    private void handle(String[] words) {
+        switch(words[0]) {
+            case "new":
+                newGame(words);
+                break;
+            case "move":
+                if(checkers == null) {
+                    throw new IllegalArgumentException("No game in progress");
+                }
+                if(words.length != 2) {
+                    throw new IllegalArgumentException("Expected a move");
+                }
+                if(checkers.getCurrentPlayer() == enginePlayer) {
+                    throw new IllegalArgumentException("Not your move");
+                }
+                makeMove(Notation.parseMove(checkers, words[1]));
+                playEngine();
+                break;
+            case "board":
+                if(checkers == null) {
+                    throw new IllegalArgumentException("No game in progress");
+                }
+                send("position " + Notation.formatPosition(checkers));
+                break;
+            case "stats":
+                send(String.format("stats sessions %d games %d moves %d " +
+                                "searches %d queued %d", metrics.getSessions(),
+                        metrics.getGames(), metrics.getMoves(),
+                        metrics.getSearches(), scheduler.getQueueLength()));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command " +
+                        words[0]);
+        }
+    }
+
+    /**
+     * Handles the new command, starting a game.
+     *
+     * @param words The command words.
+     * @throws IllegalArgumentException If an argument is invalid.
+     */
+    private void newGame(String[] words) {
+        int size = 10;
+        int player = 1;
+        Duration time = limits.gameTime;
+        for(int i=1;i<words.length;i++) {
+            switch(words[i]) {
+                case "black": player = 1; break;
+                case "white": player = 2; break;
+                case "time":
+                    if(++i >= words.length) {
+                        throw new IllegalArgumentException("Expected a time");
+                    }
+                    time = Duration.ofMillis(Long.parseLong(words[i]));
+                    if(time.compareTo(limits.gameTime) > 0) {
+                        time = limits.gameTime;
+                    }
+                    break;
+                default:
+                    size = Integer.parseInt(words[i]);
+                    if(size < 4 || size > limits.maxSize || size % 2 != 0) {
+                        throw new IllegalArgumentException(
+                                "Invalid board size " + size);
+                    }
+            }
+        }
+        checkers = new Checkers(size);
+        enginePlayer = 3 - player;
+        remaining = time;
+        plies = 0;
+        send("game " + Notation.formatPosition(checkers));
+        playEngine();
+    }
+
+    /**
+     * Makes a move in the game in progress and ends the game if it is over.
+     *
+     * @param move  The valid move.
+     */
+    private void makeMove(Move move) {
+        checkers.moveChip(move);
+        plies++;
+        metrics.moveMade();
+        if(checkers.getValidMoves().isEmpty()) {
+            endGame(checkers.getCurrentPlayer() == 1 ? "white" : "black");
+        } else if(plies >= limits.maxPlies) {
+            endGame("draw");
+        }
+    }
+
+    /**
+     * Makes the engine's moves while it is to move, each searched on the
+     * scheduler with a share of the engine's remaining game time, capped at
+     * the move time limit. Only the time each move actually took is taken
+     * off the engine's clock.
+     */
+    private void playEngine() {
+        while(checkers != null && checkers.getCurrentPlayer() == enginePlayer) {
+            Duration budget = remaining.dividedBy(MOVES_TO_GO);
+            if(budget.compareTo(limits.moveTime) > 0) {
+                budget = limits.moveTime;
+            }
+            if(budget.toMillis() < 1) {
+                budget = Duration.ofMillis(1);
+            }
+            long start = System.nanoTime();
+            Move move = scheduler.submit(checkers, budget).join();
+            remaining = remaining.minus(Duration.ofNanos(System.nanoTime() -
+                    start));
+            if(remaining.isNegative()) {
+                remaining = Duration.ZERO;
+            }
+            send("move " + Notation.formatMove(move));
+            makeMove(move);
+        }
+    }
+
+    /**
+     * Ends the game in progress.
+     *
+     * @param result    The winner, black or white, or draw.
+     */
+    private void endGame(String result) {
+        send("gameover " + result);
+        metrics.gameCompleted();
+        checkers = null;
+    }
+
+    /**
+     * Writes a line to the client.
+     *
+     * @param line  The response line.
+     */
+    private void send(String line) {
+        if(out != null) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    /**
+     * Limits applied to every game of a session.
+     */
+    public static class Limits {
+
+        /**
+         * Search time the engine has for a whole game.
+         */
+        final Duration gameTime;
+
+        /**
+         * Longest search for a single move.
+         */
+        final Duration moveTime;
+
+        /**
+         * Number of moves after which a game is drawn.
+         */
+        final int maxPlies;
+
+        /**
+         * Largest board size a client may ask for.
+         */
+        final int maxSize;
+
+        /**
+         * Time without a command after which the session is closed.
+         */
+        final Duration idleTimeout;
+
+        /**
+         * @param gameTime  Search time the engine has for a whole game.
+         * @param moveTime  Longest search for a single move.
+         * @param maxPlies  Number of moves after which a game is drawn.
+         * @param maxSize   Largest board size a client may ask for.
+         * @param idleTimeout   Time without a command after which the
+         * session is closed.
+         */
+        public Limits(Duration gameTime, Duration moveTime, int maxPlies,
+                      int maxSize, Duration idleTimeout) {
+            this.gameTime = gameTime;
+            this.moveTime = moveTime;
+            this.maxPlies = maxPlies;
+            this.maxSize = maxSize;
+            this.idleTimeout = idleTimeout;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package checkers.server;
+
+import checkers.Checkers;
+import checkers.Engine;
+import checkers.Move;
+import checkers.TranspositionTable;
+
+import javax.management.JMException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class SearchScheduler {
+
+    /**
+     * Searches waiting for a search thread, oldest first.
+     */
+    private final BlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * The search threads.
+     */
+    private final Thread[] workers;
+
+    /**
+     * Counters updated as searches complete.
+     */
+    private final ServerMetrics metrics;
+
+    /**
+     * Transposition table size of each search thread's engine in megabytes.
+     */
+    private final int hashMegabytes;
+
+    /**
+     * Runs engine searches for many sessions on a fixed number of platform
+     * threads, each with a single threaded engine of its own, so that search
+     * work never takes more than those cores however many sessions are
+     * connected.
+     *
+     * Searches are started in the order they were submitted. As a session
+     * waits for its search before submitting another, every session waiting
+     * gets a search started before any session gets a second, and each
+     * search is bounded by the session's time budget.
+     *
+     * @param threads   Number of search threads.
+     * @param hashMegabytes Transposition table size of each engine.
+     * @param metrics   Counters updated as searches complete.
+     */
+    public SearchScheduler(int threads, int hashMegabytes,
+                           ServerMetrics metrics) {
+        this.metrics = metrics;
+        this.hashMegabytes = hashMegabytes;
+        workers = new Thread[threads];
+        for(int i=0;i<threads;i++) {
+            workers[i] = new Thread(this::work, "checkers-search-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Queues a search.
+     *
+     * @param position  The board state to search from, not modified.
+     * @param budget    Time allowed for the search once started.
+     * @return  Completes with the best move, or null if the player to move
+     * has no valid moves.
+     */
+    public CompletableFuture<Move> submit(Checkers position, Duration budget) {
+        Job job = new Job(new Checkers(position), budget);
+        queue.add(job);
+        return job.result;
+    }
+
+    /**
+     * @return  Number of searches waiting for a search thread.
+     */
+    public int getQueueLength() {
+        return queue.size();
+    }
+
+    /**
+     * Stops the search threads. Queued searches are not run.
+     */
+    public void shutdown() {
+        for(Thread worker: workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Runs queued searches until interrupted. The engine's metrics are
+     * published through JMX under the name of the search thread.
+     */
+    private void work() {
+        Engine engine = new Engine(1,
+                TranspositionTable.ofMegabytes(hashMegabytes));
+        try {
+            engine.getMetrics().register(Thread.currentThread().getName());
+        } catch(JMException e) {
+            System.err.println("Engine metrics not registered: " +
+                    e.getMessage());
+        }
+        try {
+            while(!Thread.currentThread().isInterrupted()) {
+                Job job = queue.take();
+                if(job.result.isDone()) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                try {
+                    Move move = engine.search(job.position, Engine.MAX_DEPTH,
+                            job.budget);
+                    job.result.complete(move);
+                } catch(RuntimeException e) {
+                    job.result.completeExceptionally(e);
+                }
+                metrics.searchCompleted(start - job.submitted,
+                        System.nanoTime() - start);
+            }
+        } catch(InterruptedException e) {
+            // Shut down.
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * A queued search.
+     */
+    private static final class Job {
+
+        /**
+         * The board state to search from.
+         */
+        private final Checkers position;
+
+        /**
+         * Time allowed for the search once started.
+         */
+        private final Duration budget;
+
+        /**
+         * System.nanoTime value at which the search was queued.
+         */
+        private final long submitted = System.nanoTime();
+
+        /**
+         * Completes with the best move.
+         */
+        private final CompletableFuture<Move> result =
+                new CompletableFuture<>();
+
+        /**
+         * @param position  The board state to search from.
+         * @param budget    Time allowed for the search once started.
+         */
+        Job(Checkers position, Duration budget) {
+            this.position = position;
+            this.budget = budget;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package checkers.server;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ServerMetrics {
+
+    /**
+     * Sessions currently connected.
+     */
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    /**
+     * Games played to a result.
+     */
+    private final LongAdder games = new LongAdder();
+
+    /**
+     * Moves made by clients and by the engine.
+     */
+    private final LongAdder moves = new LongAdder();
+
+    /**
+     * Searches completed.
+     */
+    private final LongAdder searches = new LongAdder();
+
+    /**
+     * Time searches spent queued in nanoseconds.
+     */
+    private final LongAdder queueNanos = new LongAdder();
+
+    /**
+     * Longest time a search spent queued since the last report, in
+     * nanoseconds.
+     */
+    private final LongAccumulator maxQueueNanos =
+            new LongAccumulator(Math::max, 0);
+
+    /**
+     * Time spent searching in nanoseconds.
+     */
+    private final LongAdder searchNanos = new LongAdder();
+
+    /**
+     * System.nanoTime value of the last report.
+     */
+    private long lastTime = System.nanoTime();
+
+    /**
+     * Games count at the last report.
+     */
+    private long lastGames;
+
+    /**
+     * Moves count at the last report.
+     */
+    private long lastMoves;
+
+    /**
+     * Searches count at the last report.
+     */
+    private long lastSearches;
+
+    /**
+     * Queue time total at the last report.
+     */
+    private long lastQueueNanos;
+
+    /**
+     * Throughput counters of a game server, updated concurrently by its
+     * sessions and search threads and read as rates over the interval since
+     * the last report.
+     */
+    public ServerMetrics() {
+    }
+
+    /**
+     * Counts a session connecting.
+     */
+    void sessionOpened() {
+        sessions.incrementAndGet();
+    }
+
+    /**
+     * Counts a session disconnecting.
+     */
+    void sessionClosed() {
+        sessions.decrementAndGet();
+    }
+
+    /**
+     * Counts a game played to a result.
+     */
+    void gameCompleted() {
+        games.increment();
+    }
+
+    /**
+     * Counts a move made by a client or the engine.
+     */
+    void moveMade() {
+        moves.increment();
+    }
+
+    /**
+     * Counts a completed search.
+     *
+     * @param queued    Time the search spent queued in nanoseconds.
+     * @param searched  Time spent searching in nanoseconds.
+     */
+    void searchCompleted(long queued, long searched) {
+        searches.increment();
+        queueNanos.add(queued);
+        maxQueueNanos.accumulate(queued);
+        searchNanos.add(searched);
+    }
+
+    /**
+     * @return  Sessions currently connected.
+     */
+    public int getSessions() {
+        return sessions.get();
+    }
+
+    /**
+     * @return  Games played to a result.
+     */
+    public long getGames() {
+        return games.sum();
+    }
+
+    /**
+     * @return  Moves made by clients and by the engine.
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /**
+     * @return  Searches completed.
+     */
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    /**
+     * @return  Time spent searching in nanoseconds.
+     */
+    public long getSearchNanos() {
+        return searchNanos.sum();
+    }
+
+    /**
+     * Formats the rates since the last report and starts a new interval.
+     *
+     * @return  Sessions, games/s, moves/s and queue latency of searches
+     * completed in the interval.
+     */
+    public synchronized String report() {
+        long now = System.nanoTime();
+        long games = this.games.sum();
+        long moves = this.moves.sum();
+        long searches = this.searches.sum();
+        long queueNanos = this.queueNanos.sum();
+        double seconds = Math.max(now - lastTime, 1) / 1e9;
+        long intervalSearches = searches - lastSearches;
+        String line = String.format("sessions %d games/s %.2f moves/s %.1f " +
+                        "queue avg %.2f ms max %.2f ms", sessions.get(),
+                (games - lastGames) / seconds, (moves - lastMoves) / seconds,
+                intervalSearches > 0 ? (queueNanos - lastQueueNanos) / 1e6 /
+                        intervalSearches : 0.0,
+                maxQueueNanos.getThenReset() / 1e6);
+        lastTime = now;
+        lastGames = games;
+        lastMoves = moves;
+        lastSearches = searches;
+        lastQueueNanos = queueNanos;
+        return line;
+    }
+}
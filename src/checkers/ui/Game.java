@@ -1,8 +1,13 @@
 package checkers.ui;
 
+import checkers.CancellationToken;
 import checkers.Checkers;
+import checkers.Engine;
 import checkers.Move;
 import checkers.MoveCollection;
+import checkers.SearchInfo;
+import checkers.SearchListener;
+import checkers.TranspositionTable;
 import checkers.ui.board.Board;
 import checkers.ui.board.Cell;
 import checkers.ui.board.Chip;
@@ -13,6 +18,8 @@ import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.control.Menu;
 import javafx.scene.control.*;
+import javafx.geometry.Insets;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
@@ -24,6 +31,33 @@ import java.util.stream.IntStream;
 
 public class Game extends VBox {
 
+    /**
+     * Depth a hint is searched to before it may be shown as final.
+     */
+    private static final int HINT_MIN_DEPTH = 4;
+
+    /**
+     * Number of further iterations the best move must stay the same for a
+     * hint to be final.
+     */
+    private static final int HINT_STABLE_ITERATIONS = 3;
+
+    /**
+     * Time after which the best move found so far is shown as the hint.
+     */
+    private static final java.time.Duration HINT_BUDGET =
+            java.time.Duration.ofSeconds(10);
+
+    /**
+     * Shortest time between updates of a hint in progress, in nanoseconds.
+     */
+    private static final long HINT_UPDATE_INTERVAL = 100_000_000L;
+
+    /**
+     * Transposition table size of the hint engine in megabytes.
+     */
+    private static final int HINT_HASH_MEGABYTES = 16;
+
     /**
      * Event handler fired when game is quit.
      */
@@ -44,6 +78,38 @@ public class Game extends VBox {
      */
     private final Board boardUI;
 
+    /**
+     * Token cancelling the computer's search in progress, or null if none.
+     */
+    private CancellationToken search;
+
+    /**
+     * Animation of the computer's move in progress, or null if none.
+     */
+    private Timeline autoMoveTimeline;
+
+    /**
+     * Token cancelling the hint search in progress, or null if none.
+     */
+    private CancellationToken hint;
+
+    /**
+     * Engine searching hints, kept apart from the game's engine so that a
+     * hint does not take over its ponder search, or null until the first
+     * hint.
+     */
+    private Engine hintEngine;
+
+    /**
+     * Shown while a hint is being searched.
+     */
+    private final ProgressIndicator hintProgress;
+
+    /**
+     * Shows the hint, refined as the search deepens.
+     */
+    private final Label hintLabel;
+
     /**
      * Game UI.
      *
@@ -68,10 +134,17 @@ public class Game extends VBox {
         boardUI = new Board(gameConfig.getResolution(),
                 gameConfig.getBoardSize());
 
+        hintProgress = new ProgressIndicator();
+        hintProgress.setPrefSize(16, 16);
+        hintProgress.setVisible(false);
+        hintLabel = new Label();
+        HBox hintBar = new HBox(8, hintProgress, hintLabel);
+        hintBar.setPadding(new Insets(4));
+
         m1.getItems().addAll(mi1, new SeparatorMenuItem(), mi2);
         m2.getItems().addAll(mi4, mi5);
         mb.getMenus().addAll(m1, m2);
-        this.getChildren().addAll(mb, boardUI);
+        this.getChildren().addAll(mb, boardUI, hintBar);
 
         checkers = new Checkers(gameConfig.getBoardSize());
 
@@ -93,23 +166,11 @@ public class Game extends VBox {
             alert.setContentText("Are you sure you want to quit this game?");
             Optional<ButtonType> result = alert.showAndWait();
             if(result.orElse(null) == ButtonType.OK) {
-                onGameExit.handle(null);
+                quit();
             }
         });
 
-        mi4.setOnAction(e -> {
-            Alert hintAlert = new Alert(Alert.AlertType.INFORMATION);
-            hintAlert.setTitle("Hint");
-            hintAlert.setHeaderText(null);
-            String player = checkers.getCurrentPlayer() == 1 ? "Black" :
-                    "White";
-            Move move = checkers.getNextBestMove(5);
-            hintAlert.setContentText(String.format("%s, move chip at " +
-                            "position %d to position %d.", player,
-                    move.getStart()+1,
-                    move.getDest()+1));
-            hintAlert.showAndWait();
-        });
+        mi4.setOnAction(e -> showHint());
 
         mi5.setOnAction(e -> {
             Alert helpAlert = new Alert(Alert.AlertType.INFORMATION);
@@ -162,17 +223,31 @@ public class Game extends VBox {
 
         if(checkers.getValidMoves().size() == 0) {
             Platform.runLater(this::gameOver);
+            return;
         }
 
         int computerPlayer = gameConfig.isComputerStarts() ? 1 : 2;
         if(gameConfig.isComputer() &&
                 checkers.getCurrentPlayer() == computerPlayer) {
+            CancellationToken token = new CancellationToken();
+            Checkers board = checkers;
+            int depth = gameConfig.getComputerDifficulty();
+            search = token;
             CompletableFuture
-                    .supplyAsync(() -> checkers.getNextBestMove(
-                            gameConfig.getComputerDifficulty()
-                    ))
-                    .thenAccept(this::autoMove);
+                    .supplyAsync(() -> board.getNextBestMove(depth, token))
+                    .thenAccept(move -> Platform.runLater(() -> {
+                        if(!token.isCancelled()) {
+                            search = null;
+                            if(move != null) {
+                                autoMove(move);
+                            }
+                        }
+                    }));
         } else {
+            if(gameConfig.isComputer()) {
+                checkers.getEngine().ponder(checkers,
+                        gameConfig.getComputerDifficulty());
+            }
             engageMoveChips();
         }
     }
@@ -181,6 +256,7 @@ public class Game extends VBox {
      * Resets the game back to beginning.
      */
     private void reset() {
+        cancelComputer();
         boardUI.reset();
         checkers = new Checkers(gameConfig.getBoardSize());
         beginRound();
@@ -207,13 +283,33 @@ public class Game extends VBox {
         if(result.orElse(null) == rematchButton) {
             reset();
         } else {
-            onGameExit.handle(null);
+            quit();
+        }
+    }
+
+    /**
+     * Stops the computer and hint engine and fires the game exit event.
+     */
+    private void quit() {
+        close();
+        onGameExit.handle(null);
+    }
+
+    /**
+     * Cancels any computer move or hint in progress and shuts down the hint
+     * engine. Called when the game is quit or its window is closed.
+     */
+    public void close() {
+        cancelComputer();
+        if(hintEngine != null) {
+            hintEngine.shutdown();
+            hintEngine = null;
         }
     }
 
     /**
      * Makes a move automatically without player input. Used for simulating
-     * computer moves.
+     * computer moves. Each leg of a multi-jump is shown in turn.
      *
      * @param move  The move to make.
      */
@@ -223,18 +319,157 @@ public class Game extends VBox {
                 boardUI.getBlackChip(move.getStart()) :
                 boardUI.getWhiteChip(move.getStart());
         chip.setLifted(true);
-        Timeline tl = new Timeline(new KeyFrame(Duration.millis(1000), e ->
-                placeChip(chip, new MoveCollection(), move)));
+        Timeline tl = new Timeline(new KeyFrame(Duration.millis(1000), e -> {
+            if(move.getNext() == null) {
+                autoMoveTimeline = null;
+                placeChip(chip, new MoveCollection(), move);
+            } else {
+                dropChip(chip, new MoveCollection());
+                checkers.moveChip(new Move(move.getStart(), move.getDest(),
+                        move.getCaptured()));
+                updateBoard();
+                autoMove(move.getNext());
+            }
+        }));
+        autoMoveTimeline = tl;
         tl.play();
     }
 
+    /**
+     * Stops the computer's search and any move animation or background
+     * search, so that nothing acts on the board once the game is reset or
+     * quit.
+     */
+    private void cancelComputer() {
+        cancelHint();
+        if(search != null) {
+            search.cancel();
+            search = null;
+        }
+        if(autoMoveTimeline != null) {
+            autoMoveTimeline.stop();
+            autoMoveTimeline = null;
+        }
+        checkers.getEngine().stopPondering();
+    }
+
+    /**
+     * Starts searching for a hint for the current player off the FX thread.
+     *
+     * The search deepens one iteration at a time, showing the best move so
+     * far at most every {@link #HINT_UPDATE_INTERVAL} nanoseconds, and stops
+     * once the best move has stayed the same for
+     * {@link #HINT_STABLE_ITERATIONS} iterations past
+     * {@link #HINT_MIN_DEPTH}, or the hint budget runs out. Making a move
+     * cancels the hint.
+     */
+    private void showHint() {
+        cancelHint();
+        if(search != null || autoMoveTimeline != null ||
+                checkers.getValidMoves().isEmpty()) {
+            return;
+        }
+        CancellationToken token = new CancellationToken();
+        Checkers board = new Checkers(checkers);
+        Engine engine = getHintEngine();
+        String player = board.getCurrentPlayer() == 1 ? "Black" : "White";
+        hint = token;
+        hintProgress.setVisible(true);
+        hintLabel.setText(String.format("%s, thinking...", player));
+
+        SearchListener listener = new SearchListener() {
+            private Move best;
+            private int stable;
+            private long lastUpdate;
+
+            @Override
+            public void onIteration(SearchInfo info) {
+                stable = info.getBestMove().equals(best) ? stable + 1 : 0;
+                best = info.getBestMove();
+                long now = System.nanoTime();
+                if(now - lastUpdate >= HINT_UPDATE_INTERVAL) {
+                    lastUpdate = now;
+                    String text = String.format("%s, thinking... %s " +
+                            "(depth %d)", player, describeMove(best),
+                            info.getDepth());
+                    Platform.runLater(() -> {
+                        if(hint == token) {
+                            hintLabel.setText(text);
+                        }
+                    });
+                }
+                if(info.getDepth() >= HINT_MIN_DEPTH &&
+                        stable >= HINT_STABLE_ITERATIONS) {
+                    token.cancel();
+                }
+            }
+        };
+        CompletableFuture
+                .supplyAsync(() -> engine.search(board, Engine.MAX_DEPTH,
+                        HINT_BUDGET, token, listener))
+                .thenAccept(move -> Platform.runLater(() -> {
+                    if(hint == token) {
+                        hint = null;
+                        hintProgress.setVisible(false);
+                        hintLabel.setText(String.format("%s, %s.", player,
+                                describeMove(move)));
+                    }
+                }));
+    }
+
+    /**
+     * @return  Engine searching hints, created on first use with the opening
+     * book and tablebase of the game's engine.
+     */
+    private Engine getHintEngine() {
+        if(hintEngine == null) {
+            Engine engine = checkers.getEngine();
+            int size = checkers.getSize();
+            hintEngine = new Engine(1,
+                    TranspositionTable.ofMegabytes(HINT_HASH_MEGABYTES));
+            if(engine.getOpeningBook(size) != null) {
+                hintEngine.addOpeningBook(engine.getOpeningBook(size));
+            }
+            if(engine.getTablebase(size) != null) {
+                hintEngine.addTablebase(engine.getTablebase(size));
+            }
+        }
+        return hintEngine;
+    }
+
+    /**
+     * Cancels any hint search in progress and clears the hint.
+     */
+    private void cancelHint() {
+        if(hint != null) {
+            hint.cancel();
+            hint = null;
+        }
+        hintProgress.setVisible(false);
+        hintLabel.setText("");
+    }
+
+    /**
+     * @param move  The move, with any later legs of a multi-jump.
+     * @return  Description of the move using the cell positions.
+     */
+    private static String describeMove(Move move) {
+        StringBuilder text = new StringBuilder(String.format(
+                "move chip at position %d to position %d",
+                move.getStart()+1, move.getDest()+1));
+        for(Move leg=move.getNext();leg!=null;leg=leg.getNext()) {
+            text.append(", then ").append(leg.getDest()+1);
+        }
+        return text.toString();
+    }
+
     /**
      * Makes all of the available move chips interactive so that the current
      * player can choose a chip to move.
      */
     private void engageMoveChips() {
         HashMap<Integer, MoveCollection> moves = checkers.getValidMovesByCell();
-        IntStream.range(0, checkers.getBoard().length)
+        IntStream.range(0, checkers.getCellCount())
                 .filter(i -> !checkers.isCellEmpty(i))
                 .filter(moves::containsKey).forEach(i -> {
             checkers.Chip c = checkers.getChip(i);
@@ -253,7 +488,7 @@ public class Game extends VBox {
      * when the computer is making a move.
      */
     private void disengageMoveChips() {
-        IntStream.range(0, checkers.getBoard().length)
+        IntStream.range(0, checkers.getCellCount())
                 .filter(i -> !checkers.isCellEmpty(i)).forEach(i -> {
             checkers.Chip c = checkers.getChip(i);
             Chip chip = c.getPlayer() == 1 ?
@@ -305,6 +540,7 @@ public class Game extends VBox {
      * @param move  The move chosen by the player.
      */
     private void placeChip(Chip chip, MoveCollection moves, Move move) {
+        cancelHint();
         dropChip(chip, moves);
         checkers.moveChip(move);
         beginRound();
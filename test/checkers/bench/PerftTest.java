@@ -0,0 +1,51 @@
+package checkers.bench;
+
+import checkers.Checkers;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PerftTest {
+
+    /**
+     * Checks move generation against the known leaf counts from the
+     * starting position on every board size with reference counts, counted
+     * sequentially, in parallel with a table of subtree counts, and with
+     * the move objects the game itself plays.
+     */
+    public PerftTest() {
+    }
+
+    /**
+     * @param size  The dimensions of the board.
+     * @param depth Deepest count checked on the packed move path.
+     * @param objectDepth   Deepest count checked with move objects.
+     */
+    @ParameterizedTest
+    @CsvSource({"8, 8, 5", "10, 7, 5", "16, 5, 4"})
+    public void matchesReferenceCounts(int size, int depth, int objectDepth) {
+        Checkers checkers = new Checkers(size);
+        Perft perft = new Perft(0);
+        Perft hashed = new Perft(1 << 16);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for(int d=1;d<=depth;d++) {
+                long reference = Perft.getReferenceCount(size, d);
+                assertEquals(reference, perft.count(checkers, d),
+                        "size " + size + " depth " + d);
+                assertEquals(reference, hashed.count(checkers, d, pool),
+                        "size " + size + " depth " + d + " parallel");
+                if(d <= objectDepth) {
+                    assertEquals(reference,
+                            Perft.countMoveObjects(checkers, d),
+                            "size " + size + " depth " + d + " objects");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}